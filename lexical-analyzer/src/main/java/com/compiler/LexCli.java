@@ -0,0 +1,75 @@
+package com.compiler;
+
+import com.compiler.error.ErrorHandler;
+import com.compiler.lexer.LexicalAnalyzer;
+import com.compiler.lexer.RecoveryStrategy;
+import com.compiler.lexer.Token;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumSet;
+import java.util.List;
+
+// Non-interactive entry point: lexes each file argument and prints its tokens.
+// Kept free of the menu code so it loads as few classes as possible at startup.
+public class LexCli {
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: LexCli <file.aa>...");
+            System.exit(2);
+        }
+
+        // Set by startup/startup-bench.sh to the launch time in epoch milliseconds
+        long launchMillis = Long.getLong("aa.launch.millis", 0L);
+        boolean reportTimeToFirstToken = launchMillis > 0;
+        boolean failed = false;
+        PrintWriter out = new PrintWriter(new BufferedWriter(
+            new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+
+        for (String arg : args) {
+            Path path = Paths.get(arg);
+            byte[] content;
+            try {
+                content = Files.readAllBytes(path);
+            } catch (IOException e) {
+                System.err.println("Error reading file: " + e.getMessage());
+                failed = true;
+                continue;
+            }
+
+            // Lex the UTF-8 bytes directly instead of decoding the whole file first
+            ErrorHandler errorHandler = new ErrorHandler();
+            LexicalAnalyzer lexer = new LexicalAnalyzer(content, errorHandler,
+                EnumSet.allOf(RecoveryStrategy.class));
+            lexer.setSourceName(path.toString());
+            List<Token> tokens = lexer.tokenize();
+
+            for (Token token : tokens) {
+                out.println(token);
+                if (reportTimeToFirstToken) {
+                    out.flush();
+                    System.err.println("time-to-first-token-ms: "
+                        + (System.currentTimeMillis() - launchMillis));
+                    reportTimeToFirstToken = false;
+                }
+            }
+
+            if (errorHandler.hasErrors() || errorHandler.hasWarnings()) {
+                out.flush();
+                errorHandler.printErrors();
+                failed |= errorHandler.hasErrors();
+            }
+        }
+
+        out.flush();
+        if (failed) {
+            System.exit(1);
+        }
+    }
+}
@@ -1,22 +1,56 @@
 package com.compiler;
 
+import com.compiler.error.Diagnostic;
 import com.compiler.error.ErrorHandler;
 import com.compiler.lexer.LexicalAnalyzer;
+import com.compiler.lexer.RecoveryStrategy;
 import com.compiler.lexer.Token;
-import com.compiler.lexer.TokenType;
+import com.compiler.metrics.CompilationMetrics;
+import com.compiler.pipeline.FusedPipeline;
+import com.compiler.pipeline.StagedPipeline;
+import com.compiler.server.CompileServer;
+import com.compiler.symboltable.DeclarationProcessor;
 import com.compiler.symboltable.SymbolTable;
 import com.compiler.automata.AutomataVisualizer;
+import com.compiler.automata.DfaBatchTester;
 import com.compiler.automata.RegularExpression;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Scanner;
 
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0 && args[0].equals("--server")) {
+            CompileServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--check")) {
+            checkFiles(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--staged")) {
+            runStaged(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--lex")) {
+            LexCli.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--match")) {
+            DfaBatchTester.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         Scanner scanner = new Scanner(System.in);
         ErrorHandler errorHandler = new ErrorHandler();
         SymbolTable symbolTable = new SymbolTable(errorHandler);
@@ -39,6 +73,7 @@ public class Main {
                     case 3 -> viewAutomataStates(errorHandler);
                     case 4 -> viewSymbolTable(symbolTable);
                     case 5 -> {
+                        symbolTable.close();
                         System.out.println("Exiting compiler...");
                         return;
                     }
@@ -50,6 +85,53 @@ public class Main {
         }
     }
 
+    // Non-interactive single-pass check: lexing feeds declarations directly, no token list
+    private static void checkFiles(String[] files) throws IOException {
+        ErrorHandler errorHandler = new ErrorHandler();
+        int tokenCount = 0;
+        int declarationCount = 0;
+
+        // Each file is its own program with its own global scope
+        for (String file : files) {
+            SymbolTable symbolTable = new SymbolTable(errorHandler);
+            FusedPipeline pipeline = new FusedPipeline(errorHandler, symbolTable);
+            pipeline.run(Files.readString(Paths.get(file)), file);
+            symbolTable.close();
+            tokenCount += pipeline.getTokenCount();
+            declarationCount += pipeline.getDeclarationCount();
+        }
+
+        errorHandler.printErrors();
+        System.out.println("Tokens processed: " + tokenCount);
+        System.out.println("Symbols defined: " + declarationCount);
+        if (errorHandler.hasErrors()) {
+            System.exit(1);
+        }
+    }
+
+    // Lex, declare and print tokens on separate threads; output matches the sequential run
+    private static void runStaged(String[] files) throws IOException {
+        StagedPipeline pipeline = new StagedPipeline();
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        boolean failed = false;
+
+        for (String file : files) {
+            try {
+                StagedPipeline.Result result = pipeline.run(Files.readString(Paths.get(file)), file, out);
+                for (Diagnostic diagnostic : result.getDiagnostics()) {
+                    System.err.println(diagnostic);
+                }
+                failed |= result.hasErrors();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
     private static void analyzeFile(Scanner scanner, ErrorHandler errorHandler, SymbolTable symbolTable) {
         System.out.print("Enter file path (.aa file): ");
         String filePath = scanner.nextLine();
@@ -66,8 +148,12 @@ public class Main {
                 return;
             }
 
+            CompilationMetrics metrics = new CompilationMetrics();
+            CompilationMetrics.PhaseTimer readTimer = metrics.start(CompilationMetrics.Phase.READ);
             String content = Files.readString(path);
-            processCode(content, errorHandler, symbolTable);
+            readTimer.close();
+            metrics.recordSourceBytes(Files.size(path));
+            processCode(content, path.toString(), errorHandler, symbolTable, metrics);
         } catch (IOException e) {
             System.err.println("Error reading file: " + e.getMessage());
         }
@@ -83,28 +169,40 @@ public class Main {
             code.append(line).append("\n");
         }
         
-        processCode(code.toString(), errorHandler, symbolTable);
+        CompilationMetrics metrics = new CompilationMetrics();
+        String source = code.toString();
+        metrics.recordSourceBytes(source.getBytes(StandardCharsets.UTF_8).length);
+        processCode(source, "<stdin>", errorHandler, symbolTable, metrics);
     }
 
-    private static void processCode(String code, ErrorHandler errorHandler, SymbolTable symbolTable) {
+    private static void processCode(String code, String sourceName, ErrorHandler errorHandler,
+                                    SymbolTable symbolTable, CompilationMetrics metrics) {
     System.out.println("\nCompilation Process:");
     System.out.println("===================");
+    // The handler is shared across menu runs, so each block prints only its own entries
+    int errorsBefore = errorHandler.getErrorCount();
+    int warningsBefore = errorHandler.getWarningCount();
     
     // Phase 1: Lexical Analysis
     System.out.println("\n1. Lexical Analysis");
     System.out.println("------------------");
-    LexicalAnalyzer lexer = new LexicalAnalyzer(code, errorHandler);
+    LexicalAnalyzer lexer = new LexicalAnalyzer(code, errorHandler, EnumSet.allOf(RecoveryStrategy.class));
+    lexer.setSourceName(sourceName);
+    CompilationMetrics.PhaseTimer lexTimer = metrics.start(CompilationMetrics.Phase.LEX);
     List<Token> tokens = lexer.tokenize();
+    lexTimer.close();
+    metrics.recordTokens(tokens);
     
     System.out.println("Total tokens found: " + lexer.getTokenCount());
     
-    if (errorHandler.hasErrors()) {
+    // Recovery keeps the token stream usable, so report and carry on
+    int lexicalEnd = errorHandler.getErrorCount();
+    int lexicalErrors = lexicalEnd - errorsBefore;
+    if (lexicalErrors > 0) {
         System.out.println("\nLexical Errors Found:");
-        errorHandler.printErrors();
-        return;
+        errorHandler.printErrors(errorsBefore);
     }
 
-    // Print tokens if no errors
     System.out.println("\nTokens:");
     for (Token token : tokens) {
         System.out.println(token);
@@ -114,53 +212,52 @@ public class Main {
     System.out.println("\n2. Symbol Table Construction");
     System.out.println("--------------------------");
     
-    boolean isGlobal = false;
-    TokenType currentType = null;
-    
-    for (int i = 0; i < tokens.size(); i++) {
-        Token token = tokens.get(i);
-        
-        if (token.getType() == TokenType.GLOBAL) {
-            isGlobal = true;
-            continue;
-        }
-        
-        // Check for type declarations
-        if (token.getType() == TokenType.INT || 
-            token.getType() == TokenType.DEC || 
-            token.getType() == TokenType.BOOL || 
-            token.getType() == TokenType.CHAR || 
-            token.getType() == TokenType.STR) {
-            currentType = token.getType();
-            continue;
-        }
-        
-        // Handle identifier declarations
-        if (currentType != null && token.getType() == TokenType.IDENTIFIER) {
-            symbolTable.insert(token.getValue(), currentType, isGlobal, false,
-                             token.getLine(), token.getColumn());
-            currentType = null;
-            isGlobal = false;
-        }
+    int symbolsBefore = symbolTable.getAllSymbols().size();
+    CompilationMetrics.PhaseTimer symbolTimer = metrics.start(CompilationMetrics.Phase.SYMBOL_TABLE);
+    DeclarationProcessor declarations = new DeclarationProcessor(symbolTable);
+    for (Token token : tokens) {
+        declarations.accept(token);
     }
+    symbolTimer.close();
+    metrics.recordSymbols(symbolTable.getAllSymbols().size() - symbolsBefore);
     
     // Print final compilation status
-    if (errorHandler.hasErrors()) {
+    if (errorHandler.getErrorCount() > lexicalEnd) {
         System.out.println("\nSymbol Table Errors Found:");
-        errorHandler.printErrors();
+        errorHandler.printErrors(lexicalEnd);
     } else {
         System.out.println("\nCompilation Summary:");
         System.out.println("===================");
         System.out.println("Tokens processed: " + lexer.getTokenCount());
+        System.out.println("Lexical errors recovered: " + lexicalErrors);
         System.out.println("Symbols defined: " + symbolTable.getAllSymbols().size());
     }
     
-    if (errorHandler.hasWarnings()) {
+    if (errorHandler.getWarningCount() > warningsBefore) {
         System.out.println("\nWarnings:");
-        errorHandler.printErrors();
+        errorHandler.printWarnings(warningsBefore);
     }
+
+    metrics.printSummary();
+    exportMetrics(metrics);
 }
 
+    // Metrics are written when -Daa.metrics.out=<file.json|file.prom> is set
+    private static void exportMetrics(CompilationMetrics metrics) {
+        String target = System.getProperty("aa.metrics.out");
+        if (target == null || target.isBlank()) {
+            return;
+        }
+
+        Path path = Paths.get(target);
+        try {
+            metrics.writeTo(path, CompilationMetrics.Format.forPath(path));
+            System.out.println("Metrics written to " + path);
+        } catch (IOException e) {
+            System.err.println("Error writing metrics: " + e.getMessage());
+        }
+    }
+
     private static void viewAutomataStates(ErrorHandler errorHandler) {
         System.out.println("\nAutomata Visualization");
         System.out.println("=====================");
@@ -200,6 +297,9 @@ public class Main {
                 }
                 
                 if (pattern != null) {
+                    CompilationMetrics metrics = new CompilationMetrics();
+                    metrics.recordAutomaton(pattern);
+                    exportMetrics(metrics);
                     AutomataVisualizer.visualizeAutomata(pattern);
                 }
             } catch (NumberFormatException e) {
@@ -0,0 +1,124 @@
+package com.compiler.automata;
+
+import java.util.*;
+
+/**
+ * Partition of the character set into classes whose members behave the same
+ * in every state of one or more NFAs. Transition tables indexed by class
+ * instead of by character stay small: a [a-z] range is one column, not 26.
+ * Class 0 holds every character no transition mentions.
+ */
+public final class AlphabetClasses {
+    private static final int SMALL_MAP = 256;
+
+    private final short[] classMap;    // 256 entries when every symbol is Latin-1, else 65536
+    private final int classCount;
+    private final char[] members;      // symbols ordered by class
+    private final int[] memberStart;   // members of class k are [memberStart[k], memberStart[k + 1])
+
+    private AlphabetClasses(short[] classMap, int classCount, char[] members, int[] memberStart) {
+        this.classMap = classMap;
+        this.classCount = classCount;
+        this.members = members;
+        this.memberStart = memberStart;
+    }
+
+    public static AlphabetClasses of(NFA nfa) {
+        return of(List.of(nfa));
+    }
+
+    public static AlphabetClasses of(Collection<NFA> nfas) {
+        SortedSet<Character> alphabet = new TreeSet<>();
+        List<Set<State>> states = new ArrayList<>(nfas.size());
+        for (NFA nfa : nfas) {
+            alphabet.addAll(nfa.getAlphabet());
+            states.add(nfa.getStates());
+        }
+        return of(alphabet, states);
+    }
+
+    public static AlphabetClasses of(DFA dfa) {
+        return of(new TreeSet<>(dfa.getAlphabet()), List.of(dfa.getStates()));
+    }
+
+    private static AlphabetClasses of(SortedSet<Character> alphabet, List<Set<State>> automata) {
+        Map<Character, Integer> classOf = new HashMap<>();
+        for (char symbol : alphabet) {
+            classOf.put(symbol, 1);
+        }
+
+        // Refine state by state: symbols of one class that reach different
+        // target sets, or that have a transition where others have none, split
+        int next = 2;
+        for (Set<State> states : automata) {
+            for (State state : states) {
+                Map<Integer, Map<Set<State>, Integer>> split = new HashMap<>();
+                for (Map.Entry<Character, Set<State>> entry : state.getAllTransitions().entrySet()) {
+                    Map<Set<State>, Integer> byTarget =
+                        split.computeIfAbsent(classOf.get(entry.getKey()), k -> new HashMap<>());
+                    Integer refined = byTarget.get(entry.getValue());
+                    if (refined == null) {
+                        refined = next++;
+                        byTarget.put(entry.getValue(), refined);
+                    }
+                    classOf.put(entry.getKey(), refined);
+                }
+            }
+        }
+
+        // Renumber densely in order of each class's smallest symbol
+        Map<Integer, Integer> dense = new HashMap<>();
+        for (char symbol : alphabet) {
+            dense.putIfAbsent(classOf.get(symbol), dense.size() + 1);
+        }
+        int classCount = dense.size() + 1;
+        boolean small = alphabet.isEmpty() || alphabet.last() < SMALL_MAP;
+        short[] classMap = new short[small ? SMALL_MAP : Character.MAX_VALUE + 1];
+        int[] memberStart = new int[classCount + 1];
+        for (char symbol : alphabet) {
+            int cls = dense.get(classOf.get(symbol));
+            classMap[symbol] = (short) cls;
+            memberStart[cls + 1]++;
+        }
+        for (int k = 0; k < classCount; k++) {
+            memberStart[k + 1] += memberStart[k];
+        }
+        char[] members = new char[alphabet.size()];
+        int[] fill = Arrays.copyOf(memberStart, classCount);
+        for (char symbol : alphabet) {
+            members[fill[classMap[symbol]]++] = symbol;
+        }
+        return new AlphabetClasses(classMap, classCount, members, memberStart);
+    }
+
+    public int classOf(char symbol) {
+        return symbol < classMap.length ? classMap[symbol] : 0;
+    }
+
+    // Number of classes, including class 0
+    public int classCount() {
+        return classCount;
+    }
+
+    // Any member of a non-zero class; every member has the same transitions
+    public char representative(int cls) {
+        return members[memberStart[cls]];
+    }
+
+    public int memberCount(int cls) {
+        return memberStart[cls + 1] - memberStart[cls];
+    }
+
+    public char[] members(int cls) {
+        return Arrays.copyOfRange(members, memberStart[cls], memberStart[cls + 1]);
+    }
+
+    // Number of distinct symbols mentioned by any transition
+    public int symbolCount() {
+        return members.length;
+    }
+
+    short[] classMap() {
+        return classMap;
+    }
+}
@@ -0,0 +1,220 @@
+package com.compiler.automata;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Streams NFAs and DFAs as Graphviz DOT or JSON. Parallel edges between two
+ * states are merged into one edge whose label lists character ranges
+ * ("a-z0-9"). States are written in id order one at a time, so time is linear
+ * in the size of the automaton and memory is bounded by the largest state.
+ */
+public final class AutomataExporter {
+    public enum Format {
+        DOT,
+        JSON;
+
+        public static Format forPath(Path path) {
+            return path.getFileName().toString().endsWith(".json") ? JSON : DOT;
+        }
+    }
+
+    private AutomataExporter() {
+    }
+
+    public static void export(NFA nfa, Path path) throws IOException {
+        export("NFA", nfa.getStartState(), nfa.getStates(), Format.forPath(path), path);
+    }
+
+    public static void export(DFA dfa, Path path) throws IOException {
+        export("DFA", dfa.getStartState(), dfa.getStates(), Format.forPath(path), path);
+    }
+
+    public static void write(NFA nfa, Format format, Writer out) throws IOException {
+        write("NFA", nfa.getStartState(), nfa.getStates(), format, out);
+    }
+
+    public static void write(DFA dfa, Format format, Writer out) throws IOException {
+        write("DFA", dfa.getStartState(), dfa.getStates(), format, out);
+    }
+
+    private static void export(String kind, State start, Collection<State> states, Format format, Path path)
+            throws IOException {
+        try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            write(kind, start, states, format, out);
+        }
+    }
+
+    private static void write(String kind, State start, Collection<State> states, Format format, Writer out)
+            throws IOException {
+        Writer writer = out instanceof BufferedWriter ? out : new BufferedWriter(out);
+        if (format == Format.DOT) {
+            writeDot(kind, start, states, writer);
+        } else {
+            writeJson(kind, start, states, writer);
+        }
+        writer.flush();
+    }
+
+    private static void writeDot(String kind, State start, Collection<State> states, Writer out) throws IOException {
+        out.write("digraph " + kind + " {\n");
+        out.write("  rankdir=LR;\n");
+        out.write("  node [shape=circle];\n");
+        out.write("  __start [shape=point];\n");
+        out.write("  __start -> " + start + ";\n");
+        for (State state : inIdOrder(states)) {
+            if (state.isAccepting()) {
+                out.write("  " + state + " [shape=doublecircle];\n");
+            }
+            for (Map.Entry<State, char[]> edge : edgesByTarget(state).entrySet()) {
+                out.write("  " + state + " -> " + edge.getKey() + " [label=\""
+                          + escapeDot(rangeLabel(edge.getValue())) + "\"];\n");
+            }
+            for (State target : sortedById(state.getEpsilonTransitions())) {
+                out.write("  " + state + " -> " + target + " [label=\"ε\", style=dashed];\n");
+            }
+        }
+        out.write("}\n");
+    }
+
+    // {"type":..., "start":id, "states":[{"id", "accepting", "transitions":[{"to", "label", "ranges"}], "epsilon":[ids]}]}
+    private static void writeJson(String kind, State start, Collection<State> states, Writer out)
+            throws IOException {
+        out.write("{\"type\":\"" + kind + "\",\"start\":" + start.getId() + ",\"stateCount\":" + states.size()
+                  + ",\"states\":[\n");
+        boolean firstState = true;
+        for (State state : inIdOrder(states)) {
+            if (!firstState) {
+                out.write(",\n");
+            }
+            firstState = false;
+            out.write("{\"id\":" + state.getId() + ",\"accepting\":" + state.isAccepting() + ",\"transitions\":[");
+            boolean firstEdge = true;
+            for (Map.Entry<State, char[]> edge : edgesByTarget(state).entrySet()) {
+                if (!firstEdge) {
+                    out.write(',');
+                }
+                firstEdge = false;
+                out.write("{\"to\":" + edge.getKey().getId() + ",\"label\":\""
+                          + escapeJson(rangeLabel(edge.getValue())) + "\",\"ranges\":[");
+                List<int[]> ranges = ranges(edge.getValue());
+                for (int i = 0; i < ranges.size(); i++) {
+                    out.write((i > 0 ? ",[" : "[") + ranges.get(i)[0] + "," + ranges.get(i)[1] + "]");
+                }
+                out.write("]}");
+            }
+            out.write("],\"epsilon\":[");
+            boolean firstTarget = true;
+            for (State target : sortedById(state.getEpsilonTransitions())) {
+                out.write((firstTarget ? "" : ",") + target.getId());
+                firstTarget = false;
+            }
+            out.write("]}");
+        }
+        out.write("\n]}\n");
+    }
+
+    // Ids are dense within an automaton, so a bucket array orders states in linear time
+    static State[] inIdOrder(Collection<State> states) {
+        int maxId = -1;
+        for (State state : states) {
+            maxId = Math.max(maxId, state.getId());
+        }
+        State[] byId = new State[maxId + 1];
+        for (State state : states) {
+            byId[state.getId()] = state;
+        }
+        if (byId.length == states.size()) {
+            return byId;
+        }
+        return Arrays.stream(byId).filter(Objects::nonNull).toArray(State[]::new);
+    }
+
+    private static List<State> sortedById(Collection<State> states) {
+        List<State> sorted = new ArrayList<>(states);
+        sorted.sort(Comparator.comparingInt(State::getId));
+        return sorted;
+    }
+
+    // Outgoing symbols of one state grouped by target, targets in id order, symbols sorted
+    static Map<State, char[]> edgesByTarget(State state) {
+        Map<State, StringBuilder> symbols = new TreeMap<>(Comparator.comparingInt(State::getId));
+        for (Map.Entry<Character, Set<State>> entry : state.getAllTransitions().entrySet()) {
+            for (State target : entry.getValue()) {
+                symbols.computeIfAbsent(target, k -> new StringBuilder()).append(entry.getKey().charValue());
+            }
+        }
+        Map<State, char[]> edges = new LinkedHashMap<>();
+        for (Map.Entry<State, StringBuilder> entry : symbols.entrySet()) {
+            char[] sorted = entry.getValue().toString().toCharArray();
+            Arrays.sort(sorted);
+            edges.put(entry.getKey(), sorted);
+        }
+        return edges;
+    }
+
+    // Sorted symbols as inclusive {low, high} runs
+    static List<int[]> ranges(char[] sortedSymbols) {
+        List<int[]> ranges = new ArrayList<>();
+        for (int i = 0; i < sortedSymbols.length; ) {
+            int j = i;
+            while (j + 1 < sortedSymbols.length && sortedSymbols[j + 1] == sortedSymbols[j] + 1) {
+                j++;
+            }
+            ranges.add(new int[] {sortedSymbols[i], sortedSymbols[j]});
+            i = j + 1;
+        }
+        return ranges;
+    }
+
+    // Class-style label: runs of three or more become "a-z", shorter runs are listed
+    public static String rangeLabel(char[] sortedSymbols) {
+        StringBuilder label = new StringBuilder();
+        for (int[] range : ranges(sortedSymbols)) {
+            if (range[1] - range[0] >= 2) {
+                label.append(display((char) range[0])).append('-').append(display((char) range[1]));
+            } else {
+                for (int c = range[0]; c <= range[1]; c++) {
+                    label.append(display((char) c));
+                }
+            }
+        }
+        return label.toString();
+    }
+
+    private static String display(char c) {
+        switch (c) {
+            case '\n': return "\\n";
+            case '\t': return "\\t";
+            case '\r': return "\\r";
+            case '\\': return "\\\\";
+            case '-': return "\\-";
+            default:
+                return c < ' ' || c == 0x7f ? String.format("\\u%04x", (int) c) : String.valueOf(c);
+        }
+    }
+
+    private static String escapeDot(String label) {
+        return label.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static String escapeJson(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                escaped.append('\\').append(c);
+            } else if (c < ' ') {
+                escaped.append(String.format("\\u%04x", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
@@ -5,6 +5,7 @@ import java.util.*;
 public class AutomataVisualizer {
     @SuppressWarnings("unused")
     private static final int MAX_WIDTH = 80;
+    private static final int MAX_DIAGRAM_STATES = 50;
     private static final String ARROW = "-->";
     private static final String BRANCH = "├";
     private static final String CORNER = "└";
@@ -15,6 +16,11 @@ public class AutomataVisualizer {
         System.out.println("\nPattern: " + regex.getPattern());
         System.out.println("=".repeat(40));
         
+        if (regex.getEngine() != RegularExpression.Engine.DFA) {
+            System.out.println("No DFA to show (engine: " + regex.getEngine() + ")");
+            return;
+        }
+
         // Get NFA and DFA from regex
         @SuppressWarnings("unused")
         NFA nfa = regex.getNFA();
@@ -30,34 +36,41 @@ public class AutomataVisualizer {
         startInteractiveTesting(dfa);
     }
 
+    // Each state's own edges, one per target with its symbols collapsed to ranges;
+    // larger machines are cut short and belong in AutomataExporter output
     private static void drawStateDiagram(DFA dfa) {
         System.out.println("\nState Diagram:");
-        System.out.println("[START] " + ARROW + " (q0)");
-        
-        Map<Character, Set<State>> transitions = new HashMap<>();
-        for (State state : dfa.getStates()) {
-            for (Map.Entry<Character, Set<State>> entry : state.getAllTransitions().entrySet()) {
-                transitions.computeIfAbsent(entry.getKey(), k -> new HashSet<>())
-                          .addAll(entry.getValue());
+        System.out.println("[START] " + ARROW + " " + node(dfa.getStartState()));
+
+        State[] states = AutomataExporter.inIdOrder(dfa.getStates());
+        int shown = Math.min(states.length, MAX_DIAGRAM_STATES);
+        for (int i = 0; i < shown; i++) {
+            State state = states[i];
+            System.out.println(node(state));
+            Map<State, char[]> edges = AutomataExporter.edgesByTarget(state);
+            int remaining = edges.size();
+            for (Map.Entry<State, char[]> edge : edges.entrySet()) {
+                String prefix = --remaining > 0 ? BRANCH : CORNER;
+                System.out.printf("%s%s--%s%s %s%n", " ".repeat(4), prefix,
+                    AutomataExporter.rangeLabel(edge.getValue()), ARROW, node(edge.getKey()));
             }
         }
-
-        // Draw transitions
-        boolean isFirst = true;
-        for (Map.Entry<Character, Set<State>> entry : transitions.entrySet()) {
-            String prefix = isFirst ? BRANCH : CORNER;
-            System.out.printf("%s%s--%c%s ((q%d))\n",
-                " ".repeat(8), prefix, entry.getKey(), ARROW,
-                entry.getValue().iterator().next().getId());
-            isFirst = false;
+        if (shown < states.length) {
+            System.out.printf("... %d more states; use AutomataExporter for the full machine%n",
+                states.length - shown);
         }
     }
 
+    private static String node(State state) {
+        return state.isAccepting() ? "((" + state + "))" : "(" + state + ")";
+    }
+
     private static void printLegend() {
         System.out.println("\nLegend:");
         System.out.println("(q0)    - Regular State");
         System.out.println("((q1))  - Accepting State");
         System.out.println("--a-->  - Transition on character 'a'");
+        System.out.println("--a-z--> - Transition on any character from 'a' to 'z'");
         System.out.println("[START] - Initial State");
     }
 
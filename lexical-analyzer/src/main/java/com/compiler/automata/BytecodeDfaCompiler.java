@@ -0,0 +1,421 @@
+package com.compiler.automata;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.*;
+
+/**
+ * Translates a {@link CompiledDfa} into a hidden class whose matches() method
+ * is the automaton itself: every state is a block of bytecode, and each
+ * transition is a branch chosen by a tableswitch or by character range checks.
+ * The JIT then compiles the matcher like any hand-written loop, without a
+ * table load per character.
+ */
+public final class BytecodeDfaCompiler {
+    // Generated code uses 16-bit branch offsets
+    private static final int MAX_CODE_LENGTH = Short.MAX_VALUE;
+    private static final int MAX_SWITCH_SPAN = 512;
+
+    private static final String CLASS_NAME = "com/compiler/automata/GeneratedDfaMatcher";
+
+    // Locals of matches(): 0 this, 1 input, 2 index, 3 length, 4 current char
+    private static final int LOCAL_INDEX = 2;
+    private static final int LOCAL_CHAR = 4;
+
+    private BytecodeDfaCompiler() {
+    }
+
+    // Throws IllegalStateException if the automaton is too large for one method
+    public static DfaMatcher compile(CompiledDfa dfa) {
+        byte[] classFile = generate(dfa);
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(classFile, true);
+            return (DfaMatcher) lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class))
+                                      .invoke();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Cannot load generated matcher", t);
+        }
+    }
+
+    // Bytecode when possible, otherwise the table itself
+    public static DfaMatcher compileOrInterpret(CompiledDfa dfa) {
+        try {
+            return compile(dfa);
+        } catch (IllegalStateException e) {
+            return dfa;
+        }
+    }
+
+    static byte[] generate(CompiledDfa dfa) {
+        ConstantPool pool = new ConstantPool();
+        int thisClass = pool.classRef(CLASS_NAME);
+        int superClass = pool.classRef("java/lang/Object");
+        int matcherInterface = pool.classRef("com/compiler/automata/DfaMatcher");
+        int charSequence = pool.classRef("java/lang/CharSequence");
+        int objectInit = pool.memberRef(10, superClass, "<init>", "()V");
+        int length = pool.memberRef(11, charSequence, "length", "()I");
+        int charAt = pool.memberRef(11, charSequence, "charAt", "(I)C");
+        int codeName = pool.utf8("Code");
+        int stackMapName = pool.utf8("StackMapTable");
+        int initName = pool.utf8("<init>");
+        int initType = pool.utf8("()V");
+        int matchesName = pool.utf8("matches");
+        int matchesType = pool.utf8("(Ljava/lang/CharSequence;)Z");
+
+        Code code = new Code(pool);
+        emitMatcher(dfa, code, length, charAt);
+        if (code.length() > MAX_CODE_LENGTH) {
+            throw new IllegalStateException("DFA with " + dfa.getStateCount()
+                                            + " states is too large for the bytecode backend");
+        }
+        byte[] frames = code.stackMapFrames(thisClass, charSequence);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(52);    // Java 8 class file; StackMapTable is required
+            pool.writeTo(out);
+            out.writeShort(0x0011);    // ACC_PUBLIC | ACC_FINAL
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(1);
+            out.writeShort(matcherInterface);
+            out.writeShort(0);    // no fields
+            out.writeShort(2);
+
+            // public <init>() { super(); }
+            byte[] init = {0x2a, (byte) 0xb7, (byte) (objectInit >> 8), (byte) objectInit, (byte) 0xb1};
+            out.writeShort(0x0001);
+            out.writeShort(initName);
+            out.writeShort(initType);
+            out.writeShort(1);
+            writeCode(out, codeName, 1, 1, init, 0, null);
+
+            out.writeShort(0x0001);
+            out.writeShort(matchesName);
+            out.writeShort(matchesType);
+            out.writeShort(1);
+            writeCode(out, codeName, 2, 5, code.toByteArray(), stackMapName, frames);
+
+            out.writeShort(0);    // no class attributes
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeCode(DataOutputStream out, int codeName, int maxStack, int maxLocals, byte[] code,
+                                  int stackMapName, byte[] frames) throws IOException {
+        int attributesLength = frames == null ? 0 : 6 + frames.length;
+        out.writeShort(codeName);
+        out.writeInt(12 + code.length + attributesLength);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0);    // no exception handlers
+        out.writeShort(frames == null ? 0 : 1);
+        if (frames != null) {
+            out.writeShort(stackMapName);
+            out.writeInt(frames.length);
+            out.write(frames);
+        }
+    }
+
+    // boolean matches(CharSequence input):
+    //   i = 0; n = input.length(); c = 0;
+    //   state k: if (i >= n) return accepting(k); c = input.charAt(i++); branch on c
+    private static void emitMatcher(CompiledDfa dfa, Code code, int length, int charAt) {
+        int states = dfa.getStateCount();
+        Label[] stateLabels = new Label[states];
+        for (int k = 0; k < states; k++) {
+            stateLabels[k] = new Label();
+        }
+
+        code.op(0x03).op(0x3d);                                 // iconst_0; istore_2
+        code.op(0x2b).invokeInterface(length, 1).op(0x3e);      // aload_1; invokeinterface length; istore_3
+        code.op(0x03).op(0x36).u1(LOCAL_CHAR);                  // iconst_0; istore 4
+
+        for (int k = 0; k < states; k++) {
+            code.bind(stateLabels[k]);
+            Label read = new Label();
+            code.op(0x1c).op(0x1d).jump(0xa1, read);            // iload_2; iload_3; if_icmplt read
+            code.op(dfa.isAccepting(k) ? 0x04 : 0x03).op(0xac); // iconst_1/0; ireturn
+
+            code.bind(read);
+            code.op(0x2b).op(0x1c).invokeInterface(charAt, 2);  // aload_1; iload_2; invokeinterface charAt
+            code.op(0x36).u1(LOCAL_CHAR);                       // istore 4
+            code.op(0x84).u1(LOCAL_INDEX).u1(1);                // iinc 2 1
+            emitDispatch(code, transitionRuns(dfa, k), stateLabels);
+        }
+    }
+
+    // Maximal character ranges leading to the same live state: {low, high, target} each
+    private static List<int[]> transitionRuns(CompiledDfa dfa, int state) {
+        List<int[]> runs = new ArrayList<>();
+        int mapLength = dfa.getClassMapLength();
+        int runStart = 0;
+        int runTarget = dfa.nextByClass(state, dfa.classOf((char) 0));
+        for (int c = 1; c <= mapLength; c++) {
+            int target = c < mapLength ? dfa.nextByClass(state, dfa.classOf((char) c)) : -2;
+            if (target != runTarget) {
+                if (runTarget != CompiledDfa.DEAD) {
+                    runs.add(new int[] {runStart, c - 1, runTarget});
+                }
+                runStart = c;
+                runTarget = target;
+            }
+        }
+        int beyond = dfa.nextByClass(state, 0);
+        if (mapLength <= Character.MAX_VALUE && beyond != CompiledDfa.DEAD) {
+            runs.add(new int[] {mapLength, Character.MAX_VALUE, beyond});
+        }
+        return runs;
+    }
+
+    private static void emitDispatch(Code code, List<int[]> runs, Label[] stateLabels) {
+        if (runs.size() > 3) {
+            int low = runs.get(0)[0];
+            int high = runs.get(runs.size() - 1)[1];
+            if (high - low < MAX_SWITCH_SPAN) {
+                Label reject = new Label();
+                Label[] cases = new Label[high - low + 1];
+                Arrays.fill(cases, reject);
+                for (int[] run : runs) {
+                    for (int c = run[0]; c <= run[1]; c++) {
+                        cases[c - low] = stateLabels[run[2]];
+                    }
+                }
+                code.op(0x15).u1(LOCAL_CHAR);                   // iload 4
+                code.tableSwitch(low, reject, cases);
+                code.bind(reject);
+                code.op(0x03).op(0xac);                         // iconst_0; ireturn
+                return;
+            }
+        }
+
+        for (int[] run : runs) {
+            Label target = stateLabels[run[2]];
+            code.op(0x15).u1(LOCAL_CHAR).pushInt(run[0]);
+            if (run[0] == run[1]) {
+                code.jump(0x9f, target);                        // if_icmpeq
+                continue;
+            }
+            Label skip = new Label();
+            code.jump(0xa1, skip);                              // if_icmplt
+            code.op(0x15).u1(LOCAL_CHAR).pushInt(run[1]);
+            code.jump(0xa4, target);                            // if_icmple
+            code.bind(skip);
+        }
+        code.op(0x03).op(0xac);                                 // iconst_0; ireturn
+    }
+
+    private static final class Label {
+        int offset = -1;
+    }
+
+    // Method body with forward-referenced labels. Every label is a branch target
+    // with the same frame: {this, CharSequence, int, int, int} and an empty stack.
+    private static final class Code {
+        private final ConstantPool pool;
+        private byte[] bytes = new byte[256];
+        private int length;
+        private final List<int[]> fixups = new ArrayList<>();    // {patch at, relative to, width}
+        private final List<Label> fixupLabels = new ArrayList<>();
+        private final SortedSet<Integer> frameOffsets = new TreeSet<>();
+
+        Code(ConstantPool pool) {
+            this.pool = pool;
+        }
+
+        int length() {
+            return length;
+        }
+
+        Code u1(int value) {
+            if (length == bytes.length) {
+                bytes = Arrays.copyOf(bytes, length * 2);
+            }
+            bytes[length++] = (byte) value;
+            return this;
+        }
+
+        Code u2(int value) {
+            return u1(value >> 8).u1(value);
+        }
+
+        Code op(int opcode) {
+            return u1(opcode);
+        }
+
+        Code pushInt(int value) {
+            if (value <= 5) {
+                return op(0x03 + value);                        // iconst_n
+            }
+            if (value <= Byte.MAX_VALUE) {
+                return op(0x10).u1(value);                      // bipush
+            }
+            if (value <= Short.MAX_VALUE) {
+                return op(0x11).u2(value);                      // sipush
+            }
+            int index = pool.integer(value);
+            return op(0x13).u2(index);                          // ldc_w
+        }
+
+        Code invokeInterface(int methodRef, int argumentSlots) {
+            return op(0xb9).u2(methodRef).u1(argumentSlots).u1(0);
+        }
+
+        Code jump(int opcode, Label target) {
+            int at = length;
+            op(opcode);
+            reference(target, length, at, false);
+            return u2(0);
+        }
+
+        Code tableSwitch(int low, Label defaultLabel, Label[] cases) {
+            int at = length;
+            op(0xaa);
+            while (length % 4 != 0) {
+                u1(0);
+            }
+            reference(defaultLabel, length, at, true);
+            u2(0).u2(0);
+            u2(low >> 16).u2(low);
+            int high = low + cases.length - 1;
+            u2(high >> 16).u2(high);
+            for (Label label : cases) {
+                reference(label, length, at, true);
+                u2(0).u2(0);
+            }
+            return this;
+        }
+
+        private void reference(Label label, int patchAt, int relativeTo, boolean wide) {
+            fixups.add(new int[] {patchAt, relativeTo, wide ? 4 : 2});
+            fixupLabels.add(label);
+        }
+
+        void bind(Label label) {
+            label.offset = length;
+            frameOffsets.add(length);
+        }
+
+        byte[] toByteArray() {
+            for (int i = 0; i < fixups.size(); i++) {
+                int[] fixup = fixups.get(i);
+                int delta = fixupLabels.get(i).offset - fixup[1];
+                if (fixup[2] == 4) {
+                    bytes[fixup[0]] = (byte) (delta >> 24);
+                    bytes[fixup[0] + 1] = (byte) (delta >> 16);
+                    bytes[fixup[0] + 2] = (byte) (delta >> 8);
+                    bytes[fixup[0] + 3] = (byte) delta;
+                } else {
+                    bytes[fixup[0]] = (byte) (delta >> 8);
+                    bytes[fixup[0] + 1] = (byte) delta;
+                }
+            }
+            return Arrays.copyOf(bytes, length);
+        }
+
+        byte[] stackMapFrames(int thisClass, int charSequence) {
+            ByteArrayOutputStream frames = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(frames)) {
+                out.writeShort(frameOffsets.size());
+                int previous = -1;
+                for (int offset : frameOffsets) {
+                    out.writeByte(255);    // full_frame
+                    out.writeShort(previous < 0 ? offset : offset - previous - 1);
+                    out.writeShort(5);
+                    out.writeByte(7);
+                    out.writeShort(thisClass);
+                    out.writeByte(7);
+                    out.writeShort(charSequence);
+                    out.writeByte(1);
+                    out.writeByte(1);
+                    out.writeByte(1);
+                    out.writeShort(0);
+                    previous = offset;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return frames.toByteArray();
+        }
+    }
+
+    private static final class ConstantPool {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final Map<String, Integer> entries = new HashMap<>();
+        private int count = 1;
+
+        int utf8(String value) {
+            return entry("U" + value, () -> {
+                out.writeByte(1);
+                out.writeUTF(value);
+            });
+        }
+
+        int integer(int value) {
+            return entry("I" + value, () -> {
+                out.writeByte(3);
+                out.writeInt(value);
+            });
+        }
+
+        int classRef(String internalName) {
+            int name = utf8(internalName);
+            return entry("C" + internalName, () -> {
+                out.writeByte(7);
+                out.writeShort(name);
+            });
+        }
+
+        // tag 10: Methodref, 11: InterfaceMethodref
+        int memberRef(int tag, int owner, String name, String descriptor) {
+            int nameIndex = utf8(name);
+            int typeIndex = utf8(descriptor);
+            int nameAndType = entry("N" + name + descriptor, () -> {
+                out.writeByte(12);
+                out.writeShort(nameIndex);
+                out.writeShort(typeIndex);
+            });
+            return entry("M" + tag + ":" + owner + "." + name + descriptor, () -> {
+                out.writeByte(tag);
+                out.writeShort(owner);
+                out.writeShort(nameAndType);
+            });
+        }
+
+        private int entry(String key, Writer writer) {
+            Integer existing = entries.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            try {
+                writer.write();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            entries.put(key, count);
+            return count++;
+        }
+
+        void writeTo(DataOutputStream target) throws IOException {
+            target.writeShort(count);
+            target.write(bytes.toByteArray());
+        }
+
+        private interface Writer {
+            void write() throws IOException;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.compiler.automata;
+
+/**
+ * Caps applied while compiling a pattern. Exceeding the NFA state or alphabet
+ * cap rejects the pattern; exceeding the DFA state or time cap during subset
+ * construction makes {@link RegularExpression} fall back to a lazily built DFA.
+ *
+ * DEFAULT caps only sizes, so whether a pattern compiles in full does not
+ * depend on machine load. A wall-clock cap is opt-in via {@link #withCompileMillis}.
+ */
+public final class CompileLimits {
+    public enum Limit {
+        NFA_STATES("NFA state", ""),
+        DFA_STATES("DFA state", ""),
+        ALPHABET_SIZE("alphabet size", " symbols"),
+        COMPILE_TIME("compile time", " ms");
+
+        private final String description;
+        private final String unit;
+
+        Limit(String description, String unit) {
+            this.description = description;
+            this.unit = unit;
+        }
+
+        String describe(long allowed) {
+            return description + " limit of " + allowed + unit + " exceeded";
+        }
+    }
+
+    public static final CompileLimits DEFAULT = new CompileLimits(100_000, 10_000, 4_096, Long.MAX_VALUE);
+    public static final CompileLimits UNLIMITED =
+        new CompileLimits(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, Long.MAX_VALUE);
+
+    private final int maxNfaStates;
+    private final int maxDfaStates;
+    private final int maxAlphabetSize;
+    private final long maxCompileMillis;
+
+    public CompileLimits(int maxNfaStates, int maxDfaStates, int maxAlphabetSize, long maxCompileMillis) {
+        this.maxNfaStates = maxNfaStates;
+        this.maxDfaStates = maxDfaStates;
+        this.maxAlphabetSize = maxAlphabetSize;
+        this.maxCompileMillis = maxCompileMillis;
+    }
+
+    public int getMaxNfaStates() { return maxNfaStates; }
+    public int getMaxDfaStates() { return maxDfaStates; }
+    public int getMaxAlphabetSize() { return maxAlphabetSize; }
+    public long getMaxCompileMillis() { return maxCompileMillis; }
+
+    // Same caps plus a wall-clock limit on each compilation
+    public CompileLimits withCompileMillis(long millis) {
+        return new CompileLimits(maxNfaStates, maxDfaStates, maxAlphabetSize, millis);
+    }
+
+    // Starts the compile-time clock for one compilation
+    Budget start() {
+        return new Budget(this);
+    }
+
+    // Limits plus the clock of one compilation, checked as automata grow
+    static final class Budget {
+        private final CompileLimits limits;
+        private final long startNanos = System.nanoTime();
+
+        private Budget(CompileLimits limits) {
+            this.limits = limits;
+        }
+
+        void checkNfaStates(int count) {
+            check(Limit.NFA_STATES, count, limits.maxNfaStates);
+            checkTime();
+        }
+
+        void checkDfaStates(int count) {
+            check(Limit.DFA_STATES, count, limits.maxDfaStates);
+            checkTime();
+        }
+
+        void checkAlphabet(int size) {
+            check(Limit.ALPHABET_SIZE, size, limits.maxAlphabetSize);
+        }
+
+        void checkTime() {
+            check(Limit.COMPILE_TIME, (System.nanoTime() - startNanos) / 1_000_000, limits.maxCompileMillis);
+        }
+
+        private static void check(Limit limit, long value, long allowed) {
+            if (value > allowed) {
+                throw new LimitExceededException(limit, allowed);
+            }
+        }
+    }
+}
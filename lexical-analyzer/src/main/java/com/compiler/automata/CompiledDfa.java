@@ -0,0 +1,139 @@
+package com.compiler.automata;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only DFA table in its serialized form. The class map, transition table
+ * and accept masks are typed views over the original buffer, so a table mapped
+ * from a file is used in place without being copied or rebuilt.
+ */
+public final class CompiledDfa implements DfaMatcher {
+    public static final int DEAD = -1;
+
+    static final int MAGIC = 0x41414446;    // "AADF"
+    static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+
+    private final int fingerprint;
+    private final int classCount;
+    private final int stateCount;
+    private final int wordsPerState;
+    private final ShortBuffer classMap;
+    private final IntBuffer transitions;
+    private final LongBuffer acceptMasks;
+
+    private CompiledDfa(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt(buffer.position()) != MAGIC) {
+            throw new IllegalArgumentException("Not a compiled DFA table");
+        }
+        int base = buffer.position();
+        if (buffer.getInt(base + 4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported DFA table version " + buffer.getInt(base + 4));
+        }
+        this.fingerprint = buffer.getInt(base + 8);
+        int classMapLength = buffer.getInt(base + 12);
+        this.classCount = buffer.getInt(base + 16);
+        this.stateCount = buffer.getInt(base + 20);
+        this.wordsPerState = buffer.getInt(base + 24);
+
+        int cells = stateCount * classCount;
+        int classMapAt = base + HEADER_BYTES;
+        int transitionsAt = classMapAt + classMapLength * 2;
+        int masksAt = transitionsAt + (cells + cells % 2) * 4;
+        int end = masksAt + stateCount * wordsPerState * 8;
+        if (end > buffer.limit()) {
+            throw new IllegalArgumentException("Truncated DFA table");
+        }
+        this.classMap = slice(buffer, classMapAt, transitionsAt).asShortBuffer();
+        this.transitions = slice(buffer, transitionsAt, transitionsAt + cells * 4).asIntBuffer();
+        this.acceptMasks = slice(buffer, masksAt, end).asLongBuffer();
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int from, int to) {
+        return buffer.duplicate().limit(to).position(from).slice();
+    }
+
+    public static CompiledDfa map(ByteBuffer buffer) {
+        return new CompiledDfa(buffer);
+    }
+
+    public static CompiledDfa map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new CompiledDfa(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    static CompiledDfa of(DfaTable table, int fingerprint) {
+        return new CompiledDfa(ByteBuffer.wrap(table.serialize(fingerprint)));
+    }
+
+    public int getFingerprint() {
+        return fingerprint;
+    }
+
+    public int getStateCount() {
+        return stateCount;
+    }
+
+    public int getClassCount() {
+        return classCount;
+    }
+
+    // Characters at or above this value all belong to class 0
+    public int getClassMapLength() {
+        return classMap.limit();
+    }
+
+    public int classOf(char symbol) {
+        return symbol < classMap.limit() ? classMap.get(symbol) : 0;
+    }
+
+    public int next(int state, char symbol) {
+        return transitions.get(state * classCount + classOf(symbol));
+    }
+
+    public int nextByClass(int state, int cls) {
+        return transitions.get(state * classCount + cls);
+    }
+
+    // State after consuming the whole input from the start state, or DEAD
+    public int run(CharSequence input) {
+        int state = 0;
+        for (int i = 0; i < input.length() && state != DEAD; i++) {
+            state = next(state, input.charAt(i));
+        }
+        return state;
+    }
+
+    public boolean isAccepting(int state) {
+        return firstAccepting(state) >= 0;
+    }
+
+    // Lowest pattern index accepting in state, or -1
+    public int firstAccepting(int state) {
+        for (int w = 0; w < wordsPerState; w++) {
+            long word = acceptMasks.get(state * wordsPerState + w);
+            if (word != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+        }
+        return -1;
+    }
+
+    public boolean accepts(CharSequence input) {
+        int state = run(input);
+        return state != DEAD && isAccepting(state);
+    }
+
+    @Override
+    public boolean matches(CharSequence input) {
+        return accepts(input);
+    }
+}
@@ -1,32 +1,37 @@
 package com.compiler.automata;
 
 import com.compiler.error.ErrorHandler;
+import com.compiler.jfr.DfaConstructionEvent;
 import java.util.*;
 
 public class DFA {
     private final State startState;
     private final Set<State> states;
     private final Set<Character> alphabet;
-    private static int stateCounter = 0;
+    private int stateCounter = 0;    // ids are unique within this automaton only
     private final ErrorHandler errorHandler;
-    private final Set<State> uniqueStates;
 
     public DFA(ErrorHandler errorHandler) {
         this.states = new HashSet<>();
         this.alphabet = new HashSet<>();
         this.errorHandler = errorHandler;
-        this.uniqueStates = new HashSet<>();
         this.startState = createState();
     }
 
     private State createState() {
         State state = new State(stateCounter++);
         states.add(state);
-        uniqueStates.add(state);
         return state;
     }
 
     public static DFA fromNFA(NFA nfa, ErrorHandler errorHandler) {
+        return fromNFA(nfa, errorHandler, CompileLimits.UNLIMITED.start());
+    }
+
+    // Throws LimitExceededException when the DFA outgrows the budget
+    static DFA fromNFA(NFA nfa, ErrorHandler errorHandler, CompileLimits.Budget budget) {
+        DfaConstructionEvent event = new DfaConstructionEvent();
+        event.begin();
         DFA dfa = new DFA(errorHandler);
         Map<Set<State>, State> dfaStates = new HashMap<>();
         Queue<Set<State>> unprocessedStates = new LinkedList<>();
@@ -34,21 +39,26 @@ public class DFA {
         try {
             // Start with epsilon closure of NFA's start state
             Set<State> startStateSet = nfa.getStartState().getEpsilonClosure();
-            State dfaStartState = dfa.createState();
+            State dfaStartState = dfa.startState;
             dfaStates.put(startStateSet, dfaStartState);
             unprocessedStates.add(startStateSet);
             
             dfaStartState.setAccepting(startStateSet.stream().anyMatch(State::isAccepting));
             
+            // Symbols in one class lead to the same subset, so each class is computed once
+            AlphabetClasses classes = AlphabetClasses.of(nfa);
+            
             while (!unprocessedStates.isEmpty()) {
                 Set<State> currentStateSet = unprocessedStates.poll();
                 State currentDFAState = dfaStates.get(currentStateSet);
+                budget.checkTime();
                 
-                for (char symbol : nfa.getAlphabet()) {
+                for (int cls = 1; cls < classes.classCount(); cls++) {
+                    char representative = classes.representative(cls);
                     Set<State> nextStateSet = new HashSet<>();
                     
                     for (State nfaState : currentStateSet) {
-                        Set<State> nextStates = nfa.getNextStates(nfaState, symbol);
+                        Set<State> nextStates = nfa.getNextStates(nfaState, representative);
                         nextStateSet.addAll(nextStates);
                     }
                     
@@ -58,6 +68,7 @@ public class DFA {
                     
                     State nextDFAState = dfaStates.get(nextStateSet);
                     if (nextDFAState == null) {
+                        budget.checkDfaStates(dfa.states.size() + 1);
                         nextDFAState = dfa.createState();
                         dfaStates.put(nextStateSet, nextDFAState);
                         unprocessedStates.add(nextStateSet);
@@ -67,12 +78,23 @@ public class DFA {
                         );
                     }
                     
-                    dfa.addTransition(currentDFAState, symbol, nextDFAState);
+                    for (char symbol : classes.members(cls)) {
+                        dfa.addTransition(currentDFAState, symbol, nextDFAState);
+                    }
                 }
             }
+        } catch (LimitExceededException e) {
+            throw e;
         } catch (Exception e) {
             errorHandler.addError(0, 0, "Error during NFA to DFA conversion: " + e.getMessage());
         }
+
+        if (event.shouldCommit()) {
+            event.nfaStates = nfa.getStates().size();
+            event.dfaStates = dfa.getStates().size();
+            event.alphabetSize = nfa.getAlphabet().size();
+            event.commit();
+        }
         
         return dfa;
     }
@@ -94,13 +116,18 @@ public class DFA {
         return startState;
     }
 
+    public Set<Character> getAlphabet() {
+        return alphabet;
+    }
+
+    // Matching keeps no per-parse state, so every state counts as distinct;
+    // accepts() stays read-only and safe on a shared automaton
     public int getUniqueStateCount() {
-        return uniqueStates.size();
+        return states.size();
     }
 
     public boolean accepts(String input) {
         State currentState = startState;
-        uniqueStates.add(currentState);
         
         for (char c : input.toCharArray()) {
             Set<State> nextStates = currentState.getTransitions(c);
@@ -108,7 +135,6 @@ public class DFA {
                 return false;
             }
             currentState = nextStates.iterator().next();
-            uniqueStates.add(currentState);
         }
         
         return currentState.isAccepting();
@@ -118,24 +144,22 @@ public class DFA {
         System.out.println("\nDFA Transition Table:");
         System.out.println("--------------------");
         
-        List<Character> sortedAlphabet = new ArrayList<>(alphabet);
-        Collections.sort(sortedAlphabet);
-        List<State> sortedStates = new ArrayList<>(states);
-        sortedStates.sort(Comparator.comparingInt(State::getId));
+        // One column per symbol class, labelled with its ranges, not one per character
+        AlphabetClasses classes = AlphabetClasses.of(this);
         
         // Print header
         System.out.print("State\t");
-        for (char c : sortedAlphabet) {
-            System.out.print(c + "\t");
+        for (int cls = 1; cls < classes.classCount(); cls++) {
+            System.out.print(AutomataExporter.rangeLabel(classes.members(cls)) + "\t");
         }
         System.out.println("Accept?");
         
         // Print transitions
-        for (State state : sortedStates) {
+        for (State state : AutomataExporter.inIdOrder(states)) {
             System.out.print(state + "\t");
             
-            for (char c : sortedAlphabet) {
-                Set<State> trans = state.getTransitions(c);
+            for (int cls = 1; cls < classes.classCount(); cls++) {
+                Set<State> trans = state.getTransitions(classes.representative(cls));
                 System.out.print(trans.isEmpty() ? "-\t" : trans.iterator().next() + "\t");
             }
             
@@ -143,12 +167,11 @@ public class DFA {
         }
         
         System.out.println("Total States: " + states.size());
-        System.out.println("Unique States in Current Parse: " + uniqueStates.size());
         System.out.println("--------------------");
     }
 
+    /** @deprecated matching no longer tracks per-parse state, so there is nothing to clear */
+    @Deprecated
     public void reset() {
-        stateCounter = 0;
-        uniqueStates.clear();
     }
 }
\ No newline at end of file
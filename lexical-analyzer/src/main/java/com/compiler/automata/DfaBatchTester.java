@@ -0,0 +1,253 @@
+package com.compiler.automata;
+
+import com.compiler.error.ErrorHandler;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Batch counterpart of the interactive tester: matches every line of an input
+ * file against a compiled pattern on several threads, without tracing, and
+ * reports accept/reject counts, throughput and any disagreement with an
+ * expected-results file (one accept/reject, yes/no, true/false or 1/0 per line).
+ * Both files are streamed in batches. Patterns past CompileLimits.DEFAULT are
+ * matched by their lazy DFA, which serves one input at a time.
+ *
+ *   java -cp target/classes com.compiler.automata.DfaBatchTester <pattern> <inputs> [expected] [threads]
+ */
+public class DfaBatchTester {
+    private static final int MAX_REPORTED_MISMATCHES = 20;
+    private static final int BATCH_LINES = 1 << 16;
+
+    public static final class Result {
+        private final boolean[] accepted;
+        private final int acceptedCount;
+        private final long characters;
+        private final long nanos;
+        private final List<Integer> mismatches;    // input indexes whose result differs from the expected one
+
+        private Result(boolean[] accepted, long characters, long nanos, List<Integer> mismatches) {
+            int count = 0;
+            for (boolean a : accepted) {
+                count += a ? 1 : 0;
+            }
+            this.accepted = accepted;
+            this.acceptedCount = count;
+            this.characters = characters;
+            this.nanos = nanos;
+            this.mismatches = mismatches;
+        }
+
+        public boolean isAccepted(int index) {
+            return accepted[index];
+        }
+
+        public int getAcceptedCount() {
+            return acceptedCount;
+        }
+
+        public int getRejectedCount() {
+            return accepted.length - acceptedCount;
+        }
+
+        public long getCharacterCount() {
+            return characters;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public List<Integer> getMismatches() {
+            return mismatches;
+        }
+    }
+
+    // expected may be null; otherwise it has one entry per input
+    public static Result run(DfaMatcher matcher, List<String> inputs, List<Boolean> expected, int threads)
+            throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            return run(matcher, inputs, expected, pool, threads);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // One batch on an existing pool, so a streamed corpus reuses its threads
+    public static Result run(DfaMatcher matcher, List<String> inputs, List<Boolean> expected,
+                             ExecutorService pool, int threads) throws InterruptedException {
+        if (expected != null && expected.size() != inputs.size()) {
+            throw new IllegalArgumentException("Expected " + inputs.size() + " results, got " + expected.size());
+        }
+        boolean[] accepted = new boolean[inputs.size()];
+        long characters = 0;
+        for (String input : inputs) {
+            characters += input.length();
+        }
+
+        // Several chunks per thread so one slow chunk does not hold up the rest
+        int chunks = Math.max(1, Math.min(inputs.size(), threads * 4));
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>(chunks);
+            for (int c = 0; c < chunks; c++) {
+                int from = (int) ((long) inputs.size() * c / chunks);
+                int to = (int) ((long) inputs.size() * (c + 1) / chunks);
+                futures.add(pool.submit(() -> {
+                    for (int i = from; i < to; i++) {
+                        accepted[i] = matcher.matches(inputs.get(i));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Matching failed: " + e.getCause().getMessage(), e.getCause());
+        }
+        long nanos = System.nanoTime() - start;
+
+        List<Integer> mismatches = new ArrayList<>();
+        if (expected != null) {
+            for (int i = 0; i < accepted.length; i++) {
+                if (accepted[i] != expected.get(i)) {
+                    mismatches.add(i);
+                }
+            }
+        }
+        return new Result(accepted, characters, nanos, mismatches);
+    }
+
+    public static DfaMatcher matcherFor(RegularExpression regex) {
+        return matcherFor(regex, new ErrorHandler());
+    }
+
+    // The table-driven or generated matcher when the pattern has a full DFA, else the
+    // regex's own engine. Warns when the dense table outgrows the limits.
+    public static DfaMatcher matcherFor(RegularExpression regex, ErrorHandler errorHandler) {
+        if (regex.getEngine() == RegularExpression.Engine.DFA) {
+            try {
+                return BytecodeDfaCompiler.compileOrInterpret(regex.compile());
+            } catch (LimitExceededException e) {
+                errorHandler.addWarning(0, 0, "Pattern '" + regex.getPattern() + "': " + e.getMessage()
+                                              + "; matching with DFA.accepts instead of a compiled table");
+            }
+        }
+        return input -> regex.matches(input.toString());
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.err.println("Usage: DfaBatchTester <pattern> <inputs> [expected] [threads]");
+            System.exit(2);
+        }
+        ErrorHandler errorHandler = new ErrorHandler();
+        RegularExpression regex = new RegularExpression(args[0], errorHandler, CompileLimits.DEFAULT);
+        if (errorHandler.hasErrors() || regex.getEngine() == RegularExpression.Engine.NONE) {
+            errorHandler.printErrors();
+            System.exit(2);
+        }
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        DfaMatcher matcher = matcherFor(regex, errorHandler);
+
+        // The corpus is streamed in batches, so its size is not bounded by the heap
+        long lines = 0;
+        long accepted = 0;
+        long characters = 0;
+        long nanos = 0;
+        long mismatchCount = 0;
+        List<String> reported = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try (BufferedReader inputs = Files.newBufferedReader(Paths.get(args[1]), StandardCharsets.UTF_8);
+             BufferedReader expectedLines = args.length > 2
+                 ? Files.newBufferedReader(Paths.get(args[2]), StandardCharsets.UTF_8) : null) {
+            List<String> batch = new ArrayList<>(BATCH_LINES);
+            List<Boolean> expected = expectedLines == null ? null : new ArrayList<>(BATCH_LINES);
+            boolean more = true;
+            while (more) {
+                batch.clear();
+                String line;
+                while (batch.size() < BATCH_LINES && (line = inputs.readLine()) != null) {
+                    batch.add(line);
+                }
+                more = batch.size() == BATCH_LINES;
+                if (expected != null) {
+                    expected.clear();
+                    for (int i = 0; i < batch.size(); i++) {
+                        expected.add(parseExpected(expectedLines.readLine(), args[2], lines + i + 1));
+                    }
+                    if (!more && expectedLines.readLine() != null) {
+                        throw new IOException(args[2] + ": more results than the " + (lines + batch.size())
+                                              + " inputs");
+                    }
+                }
+
+                Result result = run(matcher, batch, expected, pool, threads);
+                accepted += result.getAcceptedCount();
+                characters += result.getCharacterCount();
+                nanos += result.getNanos();
+                mismatchCount += result.getMismatches().size();
+                for (int index : result.getMismatches()) {
+                    if (reported.size() == MAX_REPORTED_MISMATCHES) {
+                        break;
+                    }
+                    reported.add(String.format("  line %d: \"%s\" %s, expected %s", lines + index + 1,
+                                               batch.get(index), result.isAccepted(index) ? "accepted" : "rejected",
+                                               expected.get(index) ? "accept" : "reject"));
+                }
+                lines += batch.size();
+            }
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+        } finally {
+            pool.shutdown();
+        }
+
+        double seconds = nanos / 1e9;
+        System.out.println("Pattern:    " + regex.getPattern() + " (" + regex.getEngine() + ")");
+        System.out.println("Inputs:     " + lines + " strings, " + characters + " characters");
+        System.out.println("Accepted:   " + accepted);
+        System.out.println("Rejected:   " + (lines - accepted));
+        System.out.printf("Throughput: %.0f strings/s, %.1f Mchar/s on %d threads (%.1f ms)%n",
+                          lines / seconds, characters / seconds / 1e6, threads, nanos / 1e6);
+        if (regex.getEngine() == RegularExpression.Engine.LAZY_DFA) {
+            System.out.println("Note:       the lazy DFA matches one input at a time, so extra threads"
+                               + " add no throughput");
+        }
+        errorHandler.printErrors();
+        if (args.length <= 2) {
+            return;
+        }
+
+        System.out.println("Mismatches: " + mismatchCount);
+        reported.forEach(System.out::println);
+        if (mismatchCount > MAX_REPORTED_MISMATCHES) {
+            System.out.println("  ... " + (mismatchCount - MAX_REPORTED_MISMATCHES) + " more");
+        }
+        if (mismatchCount > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean parseExpected(String line, String file, long lineNumber) throws IOException {
+        if (line == null) {
+            throw new IOException(file + ": fewer results than inputs, ends at line " + (lineNumber - 1));
+        }
+        switch (line.trim().toLowerCase(Locale.ROOT)) {
+            case "accept", "accepted", "yes", "true", "1" -> {
+                return true;
+            }
+            case "reject", "rejected", "no", "false", "0" -> {
+                return false;
+            }
+            default -> throw new IOException(file + ":" + lineNumber + ": expected accept or reject, got \""
+                                             + line + "\"");
+        }
+    }
+}
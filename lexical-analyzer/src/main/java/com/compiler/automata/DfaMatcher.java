@@ -0,0 +1,6 @@
+package com.compiler.automata;
+
+// Whole-input membership test backed by a compiled DFA
+public interface DfaMatcher {
+    boolean matches(CharSequence input);
+}
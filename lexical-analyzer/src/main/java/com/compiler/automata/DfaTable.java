@@ -0,0 +1,196 @@
+package com.compiler.automata;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+// Dense transition table built by subset construction over one or more NFAs
+// run in lockstep. Each state records which of the NFAs accept there.
+final class DfaTable {
+    static final int DEAD = -1;
+
+    private final AlphabetClasses classes;    // one table column per symbol class
+    private final int width;
+    private final int[] transitions;
+    private final long[] acceptMasks;
+    private final int wordsPerState;
+    private final int stateCount;
+
+    private DfaTable(AlphabetClasses classes, int[] transitions, long[] acceptMasks, int wordsPerState,
+                     int stateCount) {
+        this.classes = classes;
+        this.width = classes.classCount();
+        this.transitions = transitions;
+        this.acceptMasks = acceptMasks;
+        this.wordsPerState = wordsPerState;
+        this.stateCount = stateCount;
+    }
+
+    static DfaTable build(NFA nfa, boolean unanchored, CompileLimits limits) {
+        return build(List.of(nfa), unanchored, limits);
+    }
+
+    // An unanchored table restarts every NFA at each position, as if each were prefixed by .*
+    // Throws LimitExceededException when the table outgrows the limits.
+    static DfaTable build(List<NFA> nfas, boolean unanchored, CompileLimits limits) {
+        CompileLimits.Budget budget = limits.start();
+        int count = nfas.size();
+        int wordsPerState = Math.max(1, (count + 63) >>> 6);
+        AlphabetClasses classes = AlphabetClasses.of(nfas);
+
+        // A table state holds one closed NFA state set per NFA, so states of
+        // different NFAs are never compared with each other
+        List<Set<State>> start = new ArrayList<>(count);
+        for (NFA nfa : nfas) {
+            start.add(nfa.getStartState().getEpsilonClosure());
+        }
+        Map<List<Set<State>>, Integer> ids = new HashMap<>();
+        List<List<Set<State>>> pending = new ArrayList<>();
+        ids.put(start, 0);
+        pending.add(start);
+
+        int width = classes.classCount();
+        int[] transitions = new int[width * 16];
+        long[] acceptMasks = new long[wordsPerState * 16];
+
+        for (int id = 0; id < pending.size(); id++) {
+            if ((id + 1) * width > transitions.length) {
+                transitions = Arrays.copyOf(transitions, transitions.length * 2);
+                acceptMasks = Arrays.copyOf(acceptMasks, acceptMasks.length * 2);
+            }
+            List<Set<State>> current = pending.get(id);
+            budget.checkTime();
+            for (int i = 0; i < count; i++) {
+                if (current.get(i).stream().anyMatch(State::isAccepting)) {
+                    acceptMasks[id * wordsPerState + (i >>> 6)] |= 1L << i;
+                }
+            }
+
+            for (int c = 0; c < width; c++) {
+                List<Set<State>> next = new ArrayList<>(count);
+                boolean alive = false;
+                for (int i = 0; i < count; i++) {
+                    // Class 0 symbols have no transitions anywhere
+                    Set<State> moved = c == 0 ? new HashSet<>() : move(current.get(i), classes.representative(c));
+                    if (unanchored) {
+                        moved.addAll(start.get(i));
+                    }
+                    alive |= !moved.isEmpty();
+                    next.add(moved);
+                }
+                int target = DEAD;
+                if (alive) {
+                    Integer existing = ids.get(next);
+                    if (existing == null) {
+                        budget.checkDfaStates(pending.size() + 1);
+                        existing = pending.size();
+                        ids.put(next, existing);
+                        pending.add(next);
+                    }
+                    target = existing;
+                }
+                transitions[id * width + c] = target;
+            }
+        }
+        return new DfaTable(classes, transitions, acceptMasks, wordsPerState, pending.size());
+    }
+
+    static Set<State> move(Set<State> states, char symbol) {
+        Set<State> result = new HashSet<>();
+        for (State state : states) {
+            for (State target : state.getTransitions(symbol)) {
+                result.addAll(target.getEpsilonClosure());
+            }
+        }
+        return result;
+    }
+
+    int next(int state, char symbol) {
+        return transitions[state * width + classes.classOf(symbol)];
+    }
+
+    // State after consuming the whole input from the start state, or DEAD
+    int run(CharSequence input) {
+        int state = 0;
+        for (int i = 0; i < input.length() && state != DEAD; i++) {
+            state = next(state, input.charAt(i));
+        }
+        return state;
+    }
+
+    boolean isAccepting(int state) {
+        for (int w = 0; w < wordsPerState; w++) {
+            if (acceptMasks[state * wordsPerState + w] != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    long acceptWord(int state, int word) {
+        return acceptMasks[state * wordsPerState + word];
+    }
+
+    int wordsPerState() {
+        return wordsPerState;
+    }
+
+    int stateCount() {
+        return stateCount;
+    }
+
+    int alphabetSize() {
+        return classes.symbolCount();
+    }
+
+    AlphabetClasses classes() {
+        return classes;
+    }
+
+    // Binary layout read by CompiledDfa
+    byte[] serialize(int fingerprint) {
+        short[] classMap = classes.classMap();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(CompiledDfa.MAGIC);
+            out.writeInt(CompiledDfa.VERSION);
+            out.writeInt(fingerprint);
+            out.writeInt(classMap.length);
+            out.writeInt(width);
+            out.writeInt(stateCount);
+            out.writeInt(wordsPerState);
+            out.writeInt(0);    // keeps the sections below naturally aligned
+            for (short cls : classMap) {
+                out.writeShort(cls);
+            }
+            for (int i = 0; i < stateCount * width; i++) {
+                out.writeInt(transitions[i]);
+            }
+            if ((stateCount * width) % 2 != 0) {
+                out.writeInt(0);
+            }
+            for (int i = 0; i < stateCount * wordsPerState; i++) {
+                out.writeLong(acceptMasks[i]);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    // The only symbol leaving state, or -1 if there are none or several
+    int singleSymbol(int state) {
+        int found = -1;
+        for (int c = 0; c < width; c++) {
+            if (transitions[state * width + c] != DEAD) {
+                if (found >= 0 || c == 0 || classes.memberCount(c) != 1) {
+                    return -1;
+                }
+                found = c;
+            }
+        }
+        return found < 0 ? -1 : classes.representative(found);
+    }
+}
@@ -0,0 +1,85 @@
+package com.compiler.automata;
+
+import java.util.*;
+
+// DFA whose states are built on demand while matching, for patterns whose
+// full subset construction exceeds the compile limits. At most maxStates are
+// cached; when the cache is full it is dropped and rebuilt as input demands.
+final class LazyDfa {
+    private static final Node DEAD = new Node(Set.of(), false, 0);
+
+    private final NFA nfa;
+    private final AlphabetClasses classes;
+    private final int maxStates;
+    private final Map<Set<State>, Node> cache = new HashMap<>();
+    private Node start;
+    private int flushes;
+
+    private static final class Node {
+        final Set<State> states;
+        final boolean accepting;
+        final Node[] next;    // by symbol class; null until first taken
+
+        Node(Set<State> states, boolean accepting, int classCount) {
+            this.states = states;
+            this.accepting = accepting;
+            this.next = new Node[classCount];
+        }
+    }
+
+    LazyDfa(NFA nfa, int maxStates) {
+        this.nfa = nfa;
+        this.classes = AlphabetClasses.of(nfa);
+        this.maxStates = Math.max(maxStates, 2);
+    }
+
+    // The cache is shared, so matching is serialized
+    synchronized boolean matches(CharSequence input) {
+        if (start == null) {
+            start = node(nfa.getStartState().getEpsilonClosure());
+        }
+        Node current = start;
+        for (int i = 0; i < input.length(); i++) {
+            int cls = classes.classOf(input.charAt(i));
+            if (cls == 0) {
+                return false;
+            }
+            Node next = current.next[cls];
+            if (next == null) {
+                next = node(DfaTable.move(current.states, classes.representative(cls)));
+                current.next[cls] = next;
+            }
+            if (next == DEAD) {
+                return false;
+            }
+            current = next;
+        }
+        return current.accepting;
+    }
+
+    private Node node(Set<State> states) {
+        if (states.isEmpty()) {
+            return DEAD;
+        }
+        Node node = cache.get(states);
+        if (node == null) {
+            if (cache.size() >= maxStates) {
+                // Nodes already in hand stay valid; only the index is dropped
+                cache.clear();
+                start = null;
+                flushes++;
+            }
+            node = new Node(states, states.stream().anyMatch(State::isAccepting), classes.classCount());
+            cache.put(states, node);
+        }
+        return node;
+    }
+
+    synchronized int getCachedStateCount() {
+        return cache.size();
+    }
+
+    synchronized int getFlushCount() {
+        return flushes;
+    }
+}
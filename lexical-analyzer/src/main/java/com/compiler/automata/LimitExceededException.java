@@ -0,0 +1,23 @@
+package com.compiler.automata;
+
+// Raised when compiling a pattern goes past one of its CompileLimits
+public class LimitExceededException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final CompileLimits.Limit limit;
+    private final long allowed;
+
+    public LimitExceededException(CompileLimits.Limit limit, long allowed) {
+        super(limit.describe(allowed));
+        this.limit = limit;
+        this.allowed = allowed;
+    }
+
+    public CompileLimits.Limit getLimit() {
+        return limit;
+    }
+
+    public long getAllowed() {
+        return allowed;
+    }
+}
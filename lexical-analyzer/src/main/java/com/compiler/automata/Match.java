@@ -0,0 +1,46 @@
+package com.compiler.automata;
+
+// Span [start, end) of a match within the searched text
+public final class Match {
+    private final int start;
+    private final int end;
+
+    public Match(int start, int end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    public int getStart() {
+        return start;
+    }
+
+    public int getEnd() {
+        return end;
+    }
+
+    public int length() {
+        return end - start;
+    }
+
+    public String getText(CharSequence text) {
+        return text.subSequence(start, end).toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Match)) return false;
+        Match match = (Match) o;
+        return start == match.start && end == match.end;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * start + end;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + start + ", " + end + ")";
+    }
+}
@@ -7,22 +7,26 @@ public class NFA {
     private final State startState;
     private final Set<State> states;
     private final Set<Character> alphabet;
-    private static int stateCounter = 0;
+    private int stateCounter = 0;    // ids are unique within this automaton only
     private final ErrorHandler errorHandler;
-    private final Set<State> uniqueStates;  // Track unique states for each parse
+    private final CompileLimits.Budget budget;
 
     public NFA(ErrorHandler errorHandler) {
+        this(errorHandler, CompileLimits.UNLIMITED.start());
+    }
+
+    NFA(ErrorHandler errorHandler, CompileLimits.Budget budget) {
+        this.budget = budget;
         this.states = new HashSet<>();
         this.alphabet = new HashSet<>();
         this.errorHandler = errorHandler;
-        this.uniqueStates = new HashSet<>();
         this.startState = createState();
     }
 
     public State createState() {
+        budget.checkNfaStates(states.size() + 1);
         State state = new State(stateCounter++);
         states.add(state);
-        uniqueStates.add(state);
         return state;
     }
 
@@ -31,7 +35,10 @@ public class NFA {
             errorHandler.addError(0, 0, "Invalid state in transition");
             return;
         }
-        alphabet.add(symbol);
+        if (!alphabet.contains(symbol)) {
+            budget.checkAlphabet(alphabet.size() + 1);
+            alphabet.add(symbol);
+        }
         from.addTransition(symbol, to);
     }
 
@@ -55,8 +62,10 @@ public class NFA {
         return alphabet;
     }
 
+    // Matching keeps no per-parse state, so every state counts as distinct;
+    // accepts() stays read-only and safe on a shared automaton
     public int getUniqueStateCount() {
-        return uniqueStates.size();
+        return states.size();
     }
 
     public Set<State> getNextStates(State current, char symbol) {
@@ -78,13 +87,11 @@ public class NFA {
         }
         
         result.addAll(nextEpsilonStates);
-        uniqueStates.addAll(result);  // Track unique states
         return result;
     }
 
     public boolean accepts(String input) {
         Set<State> currentStates = startState.getEpsilonClosure();
-        uniqueStates.addAll(currentStates);  // Track initial states
         
         for (char c : input.toCharArray()) {
             Set<State> nextStates = new HashSet<>();
@@ -92,44 +99,41 @@ public class NFA {
                 nextStates.addAll(getNextStates(state, c));
             }
             currentStates = nextStates;
-            uniqueStates.addAll(nextStates);  // Track states for each character
         }
         
         return currentStates.stream().anyMatch(State::isAccepting);
     }
 
+    /** @deprecated matching no longer tracks per-parse state, so there is nothing to clear */
+    @Deprecated
     public void reset() {
-        stateCounter = 0;
-        uniqueStates.clear();
     }
 
     public void printTransitionTable() {
         System.out.println("\nNFA Transition Table:");
         System.out.println("--------------------");
         
+        // One column per symbol class, labelled with its ranges, not one per character
+        AlphabetClasses classes = AlphabetClasses.of(this);
+        
         // Print header
         System.out.print("State\tε\t");
-        List<Character> sortedAlphabet = new ArrayList<>(alphabet);
-        Collections.sort(sortedAlphabet);
-        for (char c : sortedAlphabet) {
-            System.out.print(c + "\t");
+        for (int cls = 1; cls < classes.classCount(); cls++) {
+            System.out.print(AutomataExporter.rangeLabel(classes.members(cls)) + "\t");
         }
         System.out.println();
         
         // Print transitions for each state
-        List<State> sortedStates = new ArrayList<>(states);
-        sortedStates.sort(Comparator.comparingInt(State::getId));
-        
-        for (State state : sortedStates) {
+        for (State state : AutomataExporter.inIdOrder(states)) {
             System.out.print(state + "\t");
             
             // Print epsilon transitions
             Set<State> epsilonTrans = state.getEpsilonTransitions();
             System.out.print(epsilonTrans.isEmpty() ? "-\t" : epsilonTrans + "\t");
             
-            // Print transitions for each symbol
-            for (char c : sortedAlphabet) {
-                Set<State> trans = state.getTransitions(c);
+            // Print transitions for each symbol class
+            for (int cls = 1; cls < classes.classCount(); cls++) {
+                Set<State> trans = state.getTransitions(classes.representative(cls));
                 System.out.print(trans.isEmpty() ? "-\t" : trans + "\t");
             }
             
@@ -141,7 +145,6 @@ public class NFA {
         }
         
         System.out.println("Total States: " + states.size());
-        System.out.println("Unique States in Current Parse: " + uniqueStates.size());
         System.out.println("--------------------");
     }
 }
\ No newline at end of file
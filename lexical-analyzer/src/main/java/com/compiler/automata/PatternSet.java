@@ -0,0 +1,111 @@
+package com.compiler.automata;
+
+import com.compiler.error.ErrorHandler;
+import java.util.*;
+
+/**
+ * Matches an input against many patterns in one pass. The patterns' NFAs are
+ * run in lockstep through a product subset construction; each resulting DFA
+ * state carries a bitmask of the patterns that accept there, so a single scan
+ * reports every pattern the whole input matches.
+ *
+ * Malformed patterns are reported to the ErrorHandler when the set is built.
+ * Matching itself reports nothing: matchAll and firstMatch run the same table
+ * and let any failure propagate to the caller.
+ */
+public class PatternSet {
+    private final List<String> patterns;
+    private final DfaTable table;
+
+    public PatternSet(List<String> patterns, ErrorHandler errorHandler) {
+        this(patterns, errorHandler, CompileLimits.UNLIMITED);
+    }
+
+    // Throws LimitExceededException if the combined DFA outgrows the limits
+    public PatternSet(List<String> patterns, ErrorHandler errorHandler, CompileLimits limits) {
+        this.patterns = new ArrayList<>(patterns);
+        // Only the NFAs are needed; the product construction below is the one DFA built
+        List<NFA> nfas = new ArrayList<>(patterns.size());
+        for (String pattern : patterns) {
+            nfas.add(RegularExpression.parseNFA(pattern, errorHandler, limits));
+        }
+        this.table = DfaTable.build(nfas, false, limits);
+    }
+
+    // Indexes of every pattern that matches the whole input
+    public BitSet matchAll(CharSequence input) {
+        BitSet matched = new BitSet(patterns.size());
+        int state = table.run(input);
+        if (state == DfaTable.DEAD) {
+            return matched;
+        }
+        for (int w = 0; w < table.wordsPerState(); w++) {
+            long word = table.acceptWord(state, w);
+            while (word != 0) {
+                matched.set((w << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return matched;
+    }
+
+    // Lowest-index pattern matching the whole input, or -1; earlier patterns take priority
+    public int firstMatch(CharSequence input) {
+        int state = table.run(input);
+        if (state == DfaTable.DEAD) {
+            return -1;
+        }
+        for (int w = 0; w < table.wordsPerState(); w++) {
+            long word = table.acceptWord(state, w);
+            if (word != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+        }
+        return -1;
+    }
+
+    public boolean matchesAny(CharSequence input) {
+        return firstMatch(input) >= 0;
+    }
+
+    public int size() {
+        return patterns.size();
+    }
+
+    public String getPattern(int index) {
+        return patterns.get(index);
+    }
+
+    public int getStateCount() {
+        return table.stateCount();
+    }
+
+    public int getAlphabetSize() {
+        return table.alphabetSize();
+    }
+
+    public int getSymbolClassCount() {
+        return table.classes().classCount();
+    }
+
+    // Serializable, read-only form of the combined table
+    public CompiledDfa compile(int fingerprint) {
+        return CompiledDfa.of(table, fingerprint);
+    }
+
+    byte[] serialize(int fingerprint) {
+        return table.serialize(fingerprint);
+    }
+
+    public void printSummary() {
+        System.out.println("\nPattern Set:");
+        System.out.println("--------------------");
+        for (int i = 0; i < patterns.size(); i++) {
+            System.out.println("#" + i + " " + patterns.get(i));
+        }
+        System.out.println("Combined DFA States: " + table.stateCount());
+        System.out.println("Alphabet Size: " + table.alphabetSize());
+        System.out.println("Symbol Classes: " + table.classes().classCount());
+        System.out.println("--------------------");
+    }
+}
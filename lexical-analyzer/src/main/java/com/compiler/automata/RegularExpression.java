@@ -1,133 +1,419 @@
 package com.compiler.automata;
 
 import com.compiler.error.ErrorHandler;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
 
 public class RegularExpression {
+    // Bump whenever a parser or construction change alters what a pattern matches;
+    // precompiled tables built under another version are then rebuilt
+    public static final int SEMANTICS_VERSION = 1;
+
+    private static final int MAX_COUNT = 1000;
+
+    // How matches() is answered
+    public enum Engine {
+        DFA,         // fully constructed DFA
+        LAZY_DFA,    // DFA limits were hit; states are built on demand
+        NONE         // pattern rejected; nothing matches
+    }
+
     private final String pattern;
     private final NFA nfa;
     private final DFA dfa;
     private final ErrorHandler errorHandler;
+    private final CompileLimits limits;
+    private final List<LimitExceededException> limitViolations = new ArrayList<>();
+    private Engine engine = Engine.DFA;
+    private LazyDfa lazyDfa;
+    private Searcher searcher;    // built on first search
 
+    // Compiles in full, whatever the size; pass CompileLimits for untrusted patterns
     public RegularExpression(String pattern, ErrorHandler errorHandler) {
+        this(pattern, errorHandler, CompileLimits.UNLIMITED);
+    }
+
+    public RegularExpression(String pattern, ErrorHandler errorHandler, CompileLimits limits) {
+        this(pattern, errorHandler, limits, true);
+    }
+
+    private RegularExpression(String pattern, ErrorHandler errorHandler, CompileLimits limits, boolean withDfa) {
         this.pattern = pattern;
         this.errorHandler = errorHandler;
-        this.nfa = buildNFA();
-        this.dfa = DFA.fromNFA(this.nfa, errorHandler);
+        this.limits = limits;
+        CompileLimits.Budget budget = limits.start();
+        this.nfa = buildNFA(budget);
+        this.dfa = withDfa ? buildDFA(budget) : null;
     }
 
-    private NFA buildNFA() {
-        NFA nfa = new NFA(errorHandler);
-        State startState = nfa.getStartState();
-        State currentState = startState;
+    // Only the Thompson NFA, for callers that run their own subset construction.
+    // Errors are reported as by the constructor and leave an NFA that matches nothing
+    static NFA parseNFA(String pattern, ErrorHandler errorHandler, CompileLimits limits) {
+        return new RegularExpression(pattern, errorHandler, limits, false).nfa;
+    }
+
+    private NFA buildNFA(CompileLimits.Budget budget) {
+        NFA nfa = new NFA(errorHandler, budget);
         
         try {
-            int i = 0;
-            while (i < pattern.length()) {
-                char c = pattern.charAt(i);
-                
-                switch (c) {
-                    case '(' -> {
-                        i++; // Skip opening parenthesis
-                        State groupStart = currentState;
-                        State nextState = nfa.createState();
-                        
-                        // Process group
-                        while (i < pattern.length() && pattern.charAt(i) != ')') {
-                            if (pattern.charAt(i) == '|') {
-                                currentState = groupStart;
-                            } else {
-                                State newState = nfa.createState();
-                                nfa.addTransition(currentState, pattern.charAt(i), newState);
-                                currentState = newState;
-                            }
-                            i++;
-                        }
-                        currentState = nextState;
-                    }
-                    case '*' -> {
-                        State newState = nfa.createState();
-                        nfa.addEpsilonTransition(currentState, startState);
-                        nfa.addEpsilonTransition(startState, newState);
-                        currentState = newState;
-                    }
-                    case '+' -> {
-                        State newState = nfa.createState();
-                        nfa.addEpsilonTransition(currentState, startState);
-                        nfa.addTransition(currentState, pattern.charAt(i-1), newState);
-                        currentState = newState;
-                    }
-                    case '?' -> {
-                        State newState = nfa.createState();
-                        nfa.addEpsilonTransition(currentState, newState);
-                        currentState = newState;
-                    }
-                    case '|' -> {
-                        State alternateFinal = nfa.createState();
-                        nfa.addEpsilonTransition(currentState, alternateFinal);
-                        currentState = startState;
-                    }
-                    case '[' -> {
-                        i++; // Skip opening bracket
-                        State rangeStart = currentState;
-                        State rangeEnd = nfa.createState();
-                        
-                        boolean isNegated = pattern.charAt(i) == '^';
-                        if (isNegated) i++;
-                        
-                        while (i < pattern.length() && pattern.charAt(i) != ']') {
-                            if (pattern.charAt(i+1) == '-' && i+2 < pattern.length()) {
-                                // Handle character range (e.g., a-z)
-                                char start = pattern.charAt(i);
-                                char end = pattern.charAt(i+2);
-                                for (char ch = start; ch <= end; ch++) {
-                                    if (!isNegated) {
-                                        nfa.addTransition(rangeStart, ch, rangeEnd);
-                                    }
-                                }
-                                i += 3;
-                            } else {
-                                if (!isNegated) {
-                                    nfa.addTransition(rangeStart, pattern.charAt(i), rangeEnd);
-                                }
-                                i++;
-                            }
-                        }
-                        currentState = rangeEnd;
-                    }
-                    case '\\' -> {
-                        i++; // Skip backslash
-                        if (i < pattern.length()) {
-                            State newState = nfa.createState();
-                            nfa.addTransition(currentState, pattern.charAt(i), newState);
-                            currentState = newState;
-                        }
-                    }
-                    default -> {
-                        State newState = nfa.createState();
-                        nfa.addTransition(currentState, c, newState);
-                        currentState = newState;
-                    }
-                }
-                i++;
+            Parser parser = new Parser(nfa);
+            Fragment body = parser.parseAlternation();
+            if (parser.pos < pattern.length()) {
+                throw new IllegalArgumentException("unmatched ')' at position " + parser.pos);
             }
-            
-            currentState.setAccepting(true);
+            nfa.addEpsilonTransition(nfa.getStartState(), body.start);
+            body.end.setAccepting(true);
+        } catch (LimitExceededException e) {
+            limitViolations.add(e);
+            engine = Engine.NONE;
+            errorHandler.addError(0, 0, "Pattern '" + pattern + "' rejected: " + e.getMessage());
+            return new NFA(errorHandler);
         } catch (Exception e) {
+            engine = Engine.NONE;
             errorHandler.addError(0, 0, "Error building NFA: " + e.getMessage());
+            return new NFA(errorHandler);
         }
         
         return nfa;
     }
 
+    // Falls back to a lazy DFA, bounded by the same state limit, when subset construction outgrows the budget
+    private DFA buildDFA(CompileLimits.Budget budget) {
+        if (engine == Engine.NONE) {
+            return new DFA(errorHandler);
+        }
+        try {
+            return DFA.fromNFA(nfa, errorHandler, budget);
+        } catch (LimitExceededException e) {
+            limitViolations.add(e);
+            engine = Engine.LAZY_DFA;
+            lazyDfa = new LazyDfa(nfa, limits.getMaxDfaStates());
+            errorHandler.addWarning(0, 0, "Pattern '" + pattern + "': " + e.getMessage()
+                                          + "; matching with a lazily built DFA");
+            return new DFA(errorHandler);
+        }
+    }
+
+    // Sub-automaton with a single entry and a single exit state
+    private static class Fragment {
+        final State start;
+        final State end;
+
+        Fragment(State start, State end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    // Recursive-descent Thompson construction:
+    //   alternation := concat ('|' concat)*
+    //   concat      := repeat*
+    //   repeat      := atom ('*' | '+' | '?' | '{' m [',' [n]] '}')*
+    //   atom        := '(' alternation ')' | '[' class ']' | '\' char | char
+    private class Parser {
+        private final NFA nfa;
+        int pos = 0;
+
+        Parser(NFA nfa) {
+            this.nfa = nfa;
+        }
+
+        Fragment parseAlternation() {
+            Fragment left = parseConcat();
+            while (pos < pattern.length() && pattern.charAt(pos) == '|') {
+                pos++;
+                Fragment right = parseConcat();
+                State start = nfa.createState();
+                State end = nfa.createState();
+                nfa.addEpsilonTransition(start, left.start);
+                nfa.addEpsilonTransition(start, right.start);
+                nfa.addEpsilonTransition(left.end, end);
+                nfa.addEpsilonTransition(right.end, end);
+                left = new Fragment(start, end);
+            }
+            return left;
+        }
+
+        private Fragment parseConcat() {
+            if (atConcatEnd()) {
+                State state = nfa.createState();
+                return new Fragment(state, state);
+            }
+            Fragment result = parseRepeat(pattern.length());
+            while (!atConcatEnd()) {
+                Fragment next = parseRepeat(pattern.length());
+                nfa.addEpsilonTransition(result.end, next.start);
+                result = new Fragment(result.start, next.end);
+            }
+            return result;
+        }
+
+        private boolean atConcatEnd() {
+            return pos >= pattern.length() || pattern.charAt(pos) == '|' || pattern.charAt(pos) == ')';
+        }
+
+        // Postfix operators are applied up to limit, so an operand can be parsed again for x{m,n}
+        private Fragment parseRepeat(int limit) {
+            int atomStart = pos;
+            Fragment atom = parseAtom();
+            while (pos < limit) {
+                char op = pattern.charAt(pos);
+                if (op == '{' && isCount(pos)) {
+                    atom = parseCount(atom, atomStart);
+                    continue;
+                }
+                if (op != '*' && op != '+' && op != '?') {
+                    break;
+                }
+                pos++;
+                State start = nfa.createState();
+                State end = nfa.createState();
+                nfa.addEpsilonTransition(start, atom.start);
+                nfa.addEpsilonTransition(atom.end, end);
+                if (op != '+') {
+                    nfa.addEpsilonTransition(start, end);     // zero occurrences
+                }
+                if (op != '?') {
+                    nfa.addEpsilonTransition(atom.end, atom.start);     // repeat
+                }
+                atom = new Fragment(start, end);
+            }
+            return atom;
+        }
+
+        // A '{' that does not start a well-formed count is an ordinary character
+        private boolean isCount(int at) {
+            int i = at + 1;
+            int digits = 0;
+            while (i < pattern.length() && Character.isDigit(pattern.charAt(i))) {
+                i++;
+                digits++;
+            }
+            if (digits == 0) {
+                return false;
+            }
+            if (i < pattern.length() && pattern.charAt(i) == ',') {
+                i++;
+                while (i < pattern.length() && Character.isDigit(pattern.charAt(i))) {
+                    i++;
+                }
+            }
+            return i < pattern.length() && pattern.charAt(i) == '}';
+        }
+
+        // x{m,n} expands to m copies of x followed by n - m optional copies; x{m,} ends in x*.
+        // Copies are built by parsing the atom's text again.
+        private Fragment parseCount(Fragment atom, int atomStart) {
+            int atomEnd = pos;
+            pos++;
+            int min = readNumber();
+            int max = min;
+            if (pattern.charAt(pos) == ',') {
+                pos++;
+                max = Character.isDigit(pattern.charAt(pos)) ? readNumber() : -1;
+            }
+            pos++;    // '}'
+            if (max >= 0 && max < min) {
+                throw new IllegalArgumentException("invalid count {" + min + "," + max + "}");
+            }
+            int countEnd = pos;
+
+            State start = nfa.createState();
+            State end = start;
+            int copies = max < 0 ? min + 1 : max;
+            for (int i = 0; i < copies; i++) {
+                Fragment copy = i == 0 ? atom : reparse(atomStart, atomEnd);
+                nfa.addEpsilonTransition(end, copy.start);
+                State next = nfa.createState();
+                nfa.addEpsilonTransition(copy.end, next);
+                if (i >= min) {
+                    nfa.addEpsilonTransition(end, next);    // optional copy
+                }
+                if (max < 0 && i == min) {
+                    nfa.addEpsilonTransition(copy.end, copy.start);    // trailing x*
+                }
+                end = next;
+            }
+            pos = countEnd;
+            return new Fragment(start, end);
+        }
+
+        private Fragment reparse(int from, int to) {
+            pos = from;
+            Fragment copy = parseRepeat(to);
+            if (pos != to) {
+                throw new IllegalStateException("inconsistent reparse at position " + from);
+            }
+            return copy;
+        }
+
+        private int readNumber() {
+            int value = 0;
+            while (Character.isDigit(pattern.charAt(pos))) {
+                value = value * 10 + (pattern.charAt(pos++) - '0');
+                if (value > MAX_COUNT) {
+                    throw new IllegalArgumentException("repetition count exceeds " + MAX_COUNT);
+                }
+            }
+            return value;
+        }
+
+        private Fragment parseAtom() {
+            char c = pattern.charAt(pos++);
+            switch (c) {
+                case '(' -> {
+                    Fragment group = parseAlternation();
+                    if (pos >= pattern.length() || pattern.charAt(pos) != ')') {
+                        throw new IllegalArgumentException("missing ')' at position " + pos);
+                    }
+                    pos++;
+                    return group;
+                }
+                case '[' -> {
+                    return parseClass();
+                }
+                case '*', '+', '?' -> throw new IllegalArgumentException(
+                    "nothing to repeat before '" + c + "' at position " + (pos - 1));
+                case '\\' -> {
+                    return literal(parseEscape());
+                }
+                default -> {
+                    return literal(c);
+                }
+            }
+        }
+
+        private Fragment literal(char c) {
+            State start = nfa.createState();
+            State end = nfa.createState();
+            nfa.addTransition(start, c, end);
+            return new Fragment(start, end);
+        }
+
+        private char parseEscape() {
+            if (pos >= pattern.length()) {
+                throw new IllegalArgumentException("dangling '\\' at end of pattern");
+            }
+            char c = pattern.charAt(pos++);
+            return switch (c) {
+                case 'n' -> '\n';
+                case 't' -> '\t';
+                case 'r' -> '\r';
+                default -> c;
+            };
+        }
+
+        // Negated classes are taken relative to printable ASCII plus tab, newline and carriage return
+        private Fragment parseClass() {
+            boolean negated = pos < pattern.length() && pattern.charAt(pos) == '^';
+            if (negated) {
+                pos++;
+            }
+            BitSet members = new BitSet(128);
+            boolean first = true;
+            while (pos < pattern.length() && (pattern.charAt(pos) != ']' || first)) {
+                first = false;
+                char low = classChar();
+                char high = low;
+                if (pos + 1 < pattern.length() && pattern.charAt(pos) == '-' && pattern.charAt(pos + 1) != ']') {
+                    pos++;
+                    high = classChar();
+                    if (high < low) {
+                        throw new IllegalArgumentException("invalid range " + low + "-" + high);
+                    }
+                }
+                members.set(low, high + 1);
+            }
+            if (pos >= pattern.length()) {
+                throw new IllegalArgumentException("missing ']'");
+            }
+            pos++;
+
+            if (negated) {
+                BitSet universe = new BitSet(128);
+                universe.set(' ', '~' + 1);
+                universe.set('\t');
+                universe.set('\n');
+                universe.set('\r');
+                universe.andNot(members);
+                members = universe;
+            }
+
+            State start = nfa.createState();
+            State end = nfa.createState();
+            for (int ch = members.nextSetBit(0); ch >= 0; ch = members.nextSetBit(ch + 1)) {
+                nfa.addTransition(start, (char) ch, end);
+            }
+            return new Fragment(start, end);
+        }
+
+        private char classChar() {
+            char c = pattern.charAt(pos++);
+            return c == '\\' ? parseEscape() : c;
+        }
+    }
+
     public boolean matches(String input) {
         try {
-            return dfa.accepts(input);
+            return switch (engine) {
+                case DFA -> dfa.accepts(input);
+                case LAZY_DFA -> lazyDfa.matches(input);
+                case NONE -> false;
+            };
         } catch (Exception e) {
             errorHandler.addError(0, 0, "Error matching pattern: " + e.getMessage());
             return false;
         }
     }
 
+    // Leftmost-longest match at or after from, or null
+    public Match find(CharSequence text, int from) {
+        try {
+            return searcher().find(text, from);
+        } catch (Exception e) {
+            errorHandler.addError(0, 0, "Error searching pattern: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public Match find(CharSequence text) {
+        return find(text, 0);
+    }
+
+    // Non-overlapping leftmost-longest matches, left to right
+    public List<Match> findAll(CharSequence text) {
+        try {
+            return searcher().findAll(text);
+        } catch (Exception e) {
+            errorHandler.addError(0, 0, "Error searching pattern: " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    private Searcher searcher() {
+        if (searcher == null) {
+            searcher = new Searcher(nfa, errorHandler, limits);
+        }
+        return searcher;
+    }
+
+    // Dense table form of the DFA, for matching at scale or for BytecodeDfaCompiler.
+    // Throws LimitExceededException if the table outgrows the limits.
+    public CompiledDfa compile() {
+        return CompiledDfa.of(DfaTable.build(nfa, false, limits), pattern.hashCode());
+    }
+
+    public Engine getEngine() {
+        return engine;
+    }
+
+    // Limits hit while compiling; empty when the pattern compiled in full
+    public List<LimitExceededException> getLimitViolations() {
+        return Collections.unmodifiableList(limitViolations);
+    }
+
     public void displayAutomataStates() {
         System.out.println("\nRegular Expression: " + pattern);
         System.out.println("======================");
@@ -140,17 +426,22 @@ public class RegularExpression {
         
         // Display DFA
         System.out.println("\nDFA Information:");
+        if (engine != Engine.DFA) {
+            System.out.println("No DFA built (engine: " + engine + ")");
+            return;
+        }
         System.out.println("Total DFA States: " + dfa.getStates().size());
         System.out.println("Unique DFA States: " + dfa.getUniqueStateCount());
         dfa.printTransitionTable();
     }
 
+    // DFA states count only when the engine is DFA
     public int getTotalStates() {
-        return nfa.getStates().size() + dfa.getStates().size();
+        return nfa.getStates().size() + (engine == Engine.DFA ? dfa.getStates().size() : 0);
     }
 
     public int getUniqueStates() {
-        return nfa.getUniqueStateCount() + dfa.getUniqueStateCount();
+        return nfa.getUniqueStateCount() + (engine == Engine.DFA ? dfa.getUniqueStateCount() : 0);
     }
 
     public void printNFATransitions() {
@@ -158,7 +449,7 @@ public class RegularExpression {
     }
 
     public void printDFATransitions() {
-        dfa.printTransitionTable();
+        getDFA().printTransitionTable();
     }
 
     public String getPattern() {
@@ -168,7 +459,12 @@ public class RegularExpression {
         return nfa;
     }
 
+    // The fully constructed DFA; check getEngine() first, since rejected patterns
+    // and lazy fallbacks have none
     public DFA getDFA() {
+        if (engine != Engine.DFA) {
+            throw new IllegalStateException("Pattern '" + pattern + "' has no DFA (engine: " + engine + ")");
+        }
         return dfa;
     }
 }
\ No newline at end of file
@@ -0,0 +1,208 @@
+package com.compiler.automata;
+
+import com.compiler.error.ErrorHandler;
+import java.util.*;
+
+// Leftmost-longest substring search in three passes over table DFAs:
+//  1. an unanchored forward DFA finds the earliest position where any match ends;
+//  2. a reverse DFA over the pattern's prefixes walks back from there and
+//     yields every position a match ending at or after it could start from;
+//  3. an anchored forward DFA confirms the leftmost of those and extends it
+//     to the longest match.
+// A literal prefix shared by all matches lets pass 1 skip ahead with indexOf
+// whenever no partial match is in progress.
+final class Searcher {
+    private static final int MAX_PREFIX = 64;
+
+    private final DfaTable anchored;
+    private final DfaTable unanchored;
+    private final DfaTable reversePrefixes;
+    private final String prefix;
+
+    Searcher(NFA nfa, ErrorHandler errorHandler, CompileLimits limits) {
+        this.anchored = DfaTable.build(nfa, false, limits);
+        this.unanchored = DfaTable.build(nfa, true, limits);
+        this.reversePrefixes = DfaTable.build(reversePrefixNFA(nfa, errorHandler), false, limits);
+        this.prefix = literalPrefix(anchored);
+    }
+
+    String getPrefix() {
+        return prefix;
+    }
+
+    Match find(CharSequence text, int from) {
+        int length = text.length();
+        if (from > length) {
+            return null;
+        }
+
+        // Pass 1: earliest match end
+        int end = -1;
+        int state = 0;
+        for (int i = from; ; i++) {
+            if (unanchored.isAccepting(state)) {
+                end = i;
+                break;
+            }
+            if (state == 0 && !prefix.isEmpty()) {
+                int skip = indexOf(text, prefix, i);
+                if (skip < 0) {
+                    return null;
+                }
+                i = skip;
+            }
+            if (i == length) {
+                return null;
+            }
+            state = unanchored.next(state, text.charAt(i));
+        }
+
+        // Pass 2: candidate starts, collected from right to left
+        int[] candidates = new int[8];
+        int count = 0;
+        state = 0;
+        for (int i = end; state != DfaTable.DEAD; i--) {
+            if (reversePrefixes.isAccepting(state)) {
+                if (count == candidates.length) {
+                    candidates = Arrays.copyOf(candidates, count * 2);
+                }
+                candidates[count++] = i;
+            }
+            if (i == from) {
+                break;
+            }
+            state = reversePrefixes.next(state, text.charAt(i - 1));
+        }
+
+        // Pass 3: the leftmost candidate with an anchored match wins
+        for (int c = count - 1; c >= 0; c--) {
+            int matchEnd = longestMatch(text, candidates[c]);
+            if (matchEnd >= 0) {
+                return new Match(candidates[c], matchEnd);
+            }
+        }
+        return null;
+    }
+
+    List<Match> findAll(CharSequence text) {
+        List<Match> matches = new ArrayList<>();
+        int from = 0;
+        Match match;
+        while ((match = find(text, from)) != null) {
+            matches.add(match);
+            // Step past empty matches so the scan always advances
+            from = match.getEnd() > match.getStart() ? match.getEnd() : match.getEnd() + 1;
+        }
+        return matches;
+    }
+
+    // End of the longest match starting at start, or -1
+    private int longestMatch(CharSequence text, int start) {
+        int state = 0;
+        int last = anchored.isAccepting(state) ? start : -1;
+        for (int i = start; i < text.length(); i++) {
+            state = anchored.next(state, text.charAt(i));
+            if (state == DfaTable.DEAD) {
+                break;
+            }
+            if (anchored.isAccepting(state)) {
+                last = i + 1;
+            }
+        }
+        return last;
+    }
+
+    private static int indexOf(CharSequence text, String literal, int from) {
+        if (text instanceof String string) {
+            return string.indexOf(literal, from);
+        }
+        char first = literal.charAt(0);
+        int last = text.length() - literal.length();
+        outer:
+        for (int i = from; i <= last; i++) {
+            if (text.charAt(i) != first) {
+                continue;
+            }
+            for (int j = 1; j < literal.length(); j++) {
+                if (text.charAt(i + j) != literal.charAt(j)) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    // Symbols every match must begin with: follow the anchored start state
+    // while it is not accepting and has a single way out
+    private static String literalPrefix(DfaTable table) {
+        StringBuilder literal = new StringBuilder();
+        int state = 0;
+        while (literal.length() < MAX_PREFIX && !table.isAccepting(state)) {
+            int symbol = table.singleSymbol(state);
+            if (symbol < 0) {
+                break;
+            }
+            literal.append((char) symbol);
+            state = table.next(state, (char) symbol);
+        }
+        return literal.toString();
+    }
+
+    // NFA for the reversed prefixes of the pattern's language: it starts in every
+    // state that can still reach acceptance and accepts at the original start
+    private static NFA reversePrefixNFA(NFA nfa, ErrorHandler errorHandler) {
+        Map<State, List<State>> predecessors = new IdentityHashMap<>();
+        for (State state : nfa.getStates()) {
+            for (Set<State> targets : state.getAllTransitions().values()) {
+                for (State target : targets) {
+                    predecessors.computeIfAbsent(target, k -> new ArrayList<>()).add(state);
+                }
+            }
+            for (State target : state.getEpsilonTransitions()) {
+                predecessors.computeIfAbsent(target, k -> new ArrayList<>()).add(state);
+            }
+        }
+        Set<State> live = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<State> work = new ArrayDeque<>();
+        for (State state : nfa.getStates()) {
+            if (state.isAccepting() && live.add(state)) {
+                work.push(state);
+            }
+        }
+        while (!work.isEmpty()) {
+            for (State previous : predecessors.getOrDefault(work.pop(), List.of())) {
+                if (live.add(previous)) {
+                    work.push(previous);
+                }
+            }
+        }
+
+        NFA reversed = new NFA(errorHandler);
+        Map<State, State> copies = new IdentityHashMap<>();
+        for (State state : live) {
+            copies.put(state, reversed.createState());
+        }
+        for (State state : live) {
+            State copy = copies.get(state);
+            reversed.addEpsilonTransition(reversed.getStartState(), copy);
+            for (Map.Entry<Character, Set<State>> entry : state.getAllTransitions().entrySet()) {
+                for (State target : entry.getValue()) {
+                    if (live.contains(target)) {
+                        reversed.addTransition(copies.get(target), entry.getKey(), copy);
+                    }
+                }
+            }
+            for (State target : state.getEpsilonTransitions()) {
+                if (live.contains(target)) {
+                    reversed.addEpsilonTransition(copies.get(target), copy);
+                }
+            }
+        }
+        State original = copies.get(nfa.getStartState());
+        if (original != null) {
+            original.setAccepting(true);
+        }
+        return reversed;
+    }
+}
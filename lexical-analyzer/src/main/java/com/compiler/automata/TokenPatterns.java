@@ -0,0 +1,141 @@
+package com.compiler.automata;
+
+import com.compiler.error.ErrorHandler;
+import com.compiler.lexer.TokenType;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * The lexer's token classes as regular expressions, compiled into one
+ * {@link CompiledDfa}. The table is mapped from the tokens.dfa resource when
+ * it is on the classpath, so no automaton is constructed unless the resource
+ * is missing or was built from different patterns.
+ *
+ * LexicalAnalyzer does not use this table; it stays a hand-written scanner.
+ * The table is the regular-expression specification of the same tokens, and
+ * serves only the tests that check the lexer and the DFA engine against each
+ * other. The build therefore writes tokens.dfa to the test classes only, and
+ * the jar compiles the table on first use.
+ */
+public final class TokenPatterns {
+    static final String RESOURCE = "tokens.dfa";
+
+    // Earlier entries win when several patterns match the same lexeme
+    private static final TokenType[] TYPES = {
+        TokenType.INT, TokenType.DEC, TokenType.BOOL, TokenType.CHAR, TokenType.STR,
+        TokenType.IN, TokenType.OUT, TokenType.OUTLN, TokenType.BOOLEAN_LITERAL,
+        TokenType.IDENTIFIER, TokenType.INTEGER_LITERAL, TokenType.DECIMAL_LITERAL,
+        TokenType.STRING_LITERAL, TokenType.CHARACTER_LITERAL,
+        TokenType.SINGLE_COMMENT, TokenType.MULTI_COMMENT_START,
+        TokenType.EQUALS, TokenType.NOT_EQUALS, TokenType.ASSIGN, TokenType.LESS_THAN, TokenType.GREATER_THAN,
+        TokenType.PLUS, TokenType.MINUS, TokenType.MULTIPLY, TokenType.DIVIDE, TokenType.MODULUS,
+        TokenType.EXPONENT, TokenType.SEMICOLON, TokenType.GLOBAL
+    };
+
+    private static final String[] PATTERNS = {
+        "int", "dec", "bool", "char", "str",
+        "in", "out", "outln", "true|false",
+        "[a-z][a-z0-9]{0,31}", "[0-9]+", "[0-9]+\\.[0-9]{0,5}",
+        "\"[^\"]*\"", "'[ -~\\t\\n\\r]'",
+        "#([^*\\n][^\\n]*)?", "#\\*([^*]|\\*+[^*#])*\\*+#",
+        "==", "!=", "=", "<", ">",
+        "\\+", "-", "\\*", "/", "%",
+        "^", ";", "@"
+    };
+
+    private TokenPatterns() {
+    }
+
+    private static final class Holder {
+        static final CompiledDfa TABLE = load();
+    }
+
+    public static CompiledDfa table() {
+        return Holder.TABLE;
+    }
+
+    public static int size() {
+        return PATTERNS.length;
+    }
+
+    public static TokenType typeOf(int pattern) {
+        return TYPES[pattern];
+    }
+
+    public static String patternOf(int pattern) {
+        return PATTERNS[pattern];
+    }
+
+    // Token class of a complete lexeme, or null if no pattern matches all of it
+    public static TokenType classify(CharSequence lexeme) {
+        CompiledDfa table = table();
+        int state = table.run(lexeme);
+        int pattern = state == CompiledDfa.DEAD ? -1 : table.firstAccepting(state);
+        return pattern < 0 ? null : TYPES[pattern];
+    }
+
+    // Identifies the table format, regex semantics and pattern list a serialized
+    // table was built from
+    static int fingerprint() {
+        int hash = 31 * CompiledDfa.VERSION + RegularExpression.SEMANTICS_VERSION;
+        for (int i = 0; i < PATTERNS.length; i++) {
+            hash = 31 * (31 * hash + TYPES[i].name().hashCode()) + PATTERNS[i].hashCode();
+        }
+        return hash;
+    }
+
+    static CompiledDfa compile(ErrorHandler errorHandler) {
+        return new PatternSet(Arrays.asList(PATTERNS), errorHandler).compile(fingerprint());
+    }
+
+    private static CompiledDfa load() {
+        URL url = TokenPatterns.class.getResource(RESOURCE);
+        if (url != null) {
+            try {
+                CompiledDfa table;
+                if ("file".equals(url.getProtocol())) {
+                    table = CompiledDfa.map(Path.of(url.toURI()));
+                } else {
+                    try (InputStream in = url.openStream()) {
+                        table = CompiledDfa.map(ByteBuffer.wrap(in.readAllBytes()));
+                    }
+                }
+                if (table.getFingerprint() == fingerprint()) {
+                    return table;
+                }
+            } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+                // Unreadable or stale table: rebuild below
+            }
+        }
+        return compile(new ErrorHandler());
+    }
+
+    // Build step: writes the compiled table to the given file
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: TokenPatterns <output file>");
+            System.exit(2);
+        }
+        ErrorHandler errorHandler = new ErrorHandler();
+        PatternSet patterns = new PatternSet(Arrays.asList(PATTERNS), errorHandler);
+        if (errorHandler.hasErrors()) {
+            errorHandler.printErrors();
+            System.exit(1);
+        }
+        Path output = Path.of(args[0]);
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        byte[] table = patterns.serialize(fingerprint());
+        Files.write(output, table);
+        CompiledDfa compiled = CompiledDfa.map(ByteBuffer.wrap(table));
+        System.out.println("Wrote " + compiled.getStateCount() + " states, " + compiled.getClassCount()
+                           + " symbol classes to " + output);
+    }
+}
@@ -0,0 +1,45 @@
+package com.compiler.error;
+
+import java.util.Comparator;
+
+public class Diagnostic {
+    public enum Severity {
+        ERROR,
+        WARNING
+    }
+
+    // Deterministic ordering used when merging per-thread buffers
+    public static final Comparator<Diagnostic> ORDER = Comparator
+        .comparing(Diagnostic::getFile)
+        .thenComparingInt(Diagnostic::getLine)
+        .thenComparingInt(Diagnostic::getColumn)
+        .thenComparing(Diagnostic::getSeverity)
+        .thenComparing(Diagnostic::getMessage);
+
+    private final String file;
+    private final int line;
+    private final int column;
+    private final Severity severity;
+    private final String message;
+
+    public Diagnostic(String file, int line, int column, Severity severity, String message) {
+        this.file = file == null ? "" : file;
+        this.line = line;
+        this.column = column;
+        this.severity = severity;
+        this.message = message;
+    }
+
+    // Getters
+    public String getFile() { return file; }
+    public int getLine() { return line; }
+    public int getColumn() { return column; }
+    public Severity getSeverity() { return severity; }
+    public String getMessage() { return message; }
+
+    @Override
+    public String toString() {
+        return String.format("%s%s at line %d, column %d: %s",
+            file.isEmpty() ? "" : file + ": ", severity.name(), line, column, message);
+    }
+}
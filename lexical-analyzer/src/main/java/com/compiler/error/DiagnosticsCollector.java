@@ -0,0 +1,123 @@
+package com.compiler.error;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Collects diagnostics from many threads without a shared lock. Every thread
+ * appends to its own buffer; buffers are merged and sorted by file, line and
+ * column only when the result is requested.
+ */
+public class DiagnosticsCollector {
+    private final Queue<Buffer> buffers;
+    private final ThreadLocal<Buffer> localBuffer;
+
+    public DiagnosticsCollector() {
+        this.buffers = new ConcurrentLinkedQueue<>();
+        this.localBuffer = ThreadLocal.withInitial(() -> {
+            Buffer buffer = new Buffer();
+            buffers.add(buffer);
+            return buffer;
+        });
+    }
+
+    public void report(String file, int line, int column, Diagnostic.Severity severity, String message) {
+        localBuffer.get().add(new Diagnostic(file, line, column, severity, message));
+    }
+
+    public void addError(String file, int line, int column, String message) {
+        report(file, line, column, Diagnostic.Severity.ERROR, message);
+    }
+
+    public void addWarning(String file, int line, int column, String message) {
+        report(file, line, column, Diagnostic.Severity.WARNING, message);
+    }
+
+    // Returns an ErrorHandler for a single file that also forwards into this collector
+    public ErrorHandler handlerFor(String file) {
+        return new ForwardingErrorHandler(this, file);
+    }
+
+    public List<Diagnostic> getDiagnostics() {
+        List<Diagnostic> merged = new ArrayList<>();
+        for (Buffer buffer : buffers) {
+            buffer.copyInto(merged);
+        }
+        merged.sort(Diagnostic.ORDER);
+        return merged;
+    }
+
+    public int getErrorCount() {
+        int count = 0;
+        for (Buffer buffer : buffers) {
+            count += buffer.errorCount();
+        }
+        return count;
+    }
+
+    public boolean hasErrors() {
+        return getErrorCount() > 0;
+    }
+
+    public void printDiagnostics() {
+        for (Diagnostic diagnostic : getDiagnostics()) {
+            System.err.println(diagnostic);
+        }
+    }
+
+    public void clear() {
+        for (Buffer buffer : buffers) {
+            buffer.clear();
+        }
+    }
+
+    // Only the owning thread appends, so the monitor is uncontended except while merging
+    private static class Buffer {
+        private final List<Diagnostic> diagnostics = new ArrayList<>();
+        private int errors;
+
+        synchronized void add(Diagnostic diagnostic) {
+            diagnostics.add(diagnostic);
+            if (diagnostic.getSeverity() == Diagnostic.Severity.ERROR) {
+                errors++;
+            }
+        }
+
+        synchronized void copyInto(List<Diagnostic> target) {
+            target.addAll(diagnostics);
+        }
+
+        synchronized int errorCount() {
+            return errors;
+        }
+
+        synchronized void clear() {
+            diagnostics.clear();
+            errors = 0;
+        }
+    }
+
+    private static class ForwardingErrorHandler extends ErrorHandler {
+        private final DiagnosticsCollector collector;
+        private final String file;
+
+        ForwardingErrorHandler(DiagnosticsCollector collector, String file) {
+            this.collector = collector;
+            this.file = file;
+        }
+
+        @Override
+        public void addError(int line, int column, String message) {
+            super.addError(line, column, message);
+            collector.addError(file, line, column, message);
+        }
+
+        @Override
+        public void addWarning(int line, int column, String message) {
+            super.addWarning(line, column, message);
+            collector.addWarning(file, line, column, message);
+        }
+    }
+}
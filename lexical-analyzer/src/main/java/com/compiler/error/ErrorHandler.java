@@ -46,6 +46,27 @@ public class ErrorHandler {
         }
     }
 
+    // Errors from index from on, so one phase can report only its own
+    public void printErrors(int from) {
+        for (int i = from; i < errors.size(); i++) {
+            System.err.println(errors.get(i));
+        }
+    }
+
+    public void printWarnings(int from) {
+        for (int i = from; i < warnings.size(); i++) {
+            System.err.println(warnings.get(i));
+        }
+    }
+
+    public int getErrorCount() {
+        return errors.size();
+    }
+
+    public int getWarningCount() {
+        return warnings.size();
+    }
+
     public void printErrorCount() {
         System.err.println(String.format("\nFound %d error(s) and %d warning(s)", 
             errors.size(), warnings.size()));
@@ -0,0 +1,26 @@
+package com.compiler.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.compiler.DfaConstruction")
+@Label("DFA Construction")
+@Description("Subset construction performed by DFA.fromNFA")
+@Category({"AA Compiler", "Automata"})
+@Enabled(false)
+@StackTrace(false)
+public class DfaConstructionEvent extends Event {
+    @Label("NFA States")
+    public int nfaStates;
+
+    @Label("DFA States")
+    public int dfaStates;
+
+    @Label("Alphabet Size")
+    public int alphabetSize;
+}
@@ -0,0 +1,26 @@
+package com.compiler.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.compiler.ErrorBurst")
+@Label("Lexical Error Burst")
+@Description("Run of consecutive INVALID tokens produced by the lexer")
+@Category({"AA Compiler", "Lexer"})
+@Enabled(false)
+@StackTrace(false)
+public class ErrorBurstEvent extends Event {
+    @Label("Line")
+    public int line;
+
+    @Label("Column")
+    public int column;
+
+    @Label("Invalid Tokens")
+    public int invalidTokens;
+}
@@ -0,0 +1,31 @@
+package com.compiler.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.compiler.Lex")
+@Label("Lex Source")
+@Description("Tokenization of one source input")
+@Category({"AA Compiler", "Lexer"})
+@Enabled(false)
+@StackTrace(false)
+public class LexEvent extends Event {
+    @Label("Source")
+    public String source;
+
+    @Label("Source Length")
+    @DataAmount(DataAmount.BYTES)
+    public long bytes;
+
+    @Label("Tokens")
+    public int tokens;
+
+    @Label("Invalid Tokens")
+    public int invalidTokens;
+}
@@ -0,0 +1,26 @@
+package com.compiler.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.compiler.Scope")
+@Label("Symbol Table Scope")
+@Description("Lifetime of a SymbolTable scope from enterScope to exitScope")
+@Category({"AA Compiler", "Symbol Table"})
+@Enabled(false)
+@StackTrace(false)
+public class ScopeEvent extends Event {
+    @Label("Scope")
+    public String scope;
+
+    @Label("Depth")
+    public int depth;
+
+    @Label("Symbols Declared")
+    public int symbols;
+}
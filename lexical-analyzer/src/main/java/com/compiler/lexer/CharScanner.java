@@ -0,0 +1,121 @@
+package com.compiler.lexer;
+
+// Bulk search primitives used by SourceReader to skip runs of input at once.
+// The scalar versions here are the reference; VectorCharScanner overrides them
+// with SIMD loops when the jdk.incubator.vector module is available.
+class CharScanner {
+    private static final CharScanner INSTANCE = create();
+
+    static CharScanner get() {
+        return INSTANCE;
+    }
+
+    // Opt out with -Daa.lexer.simd=false; the module must be added with
+    // --add-modules jdk.incubator.vector for the vector path to load.
+    private static CharScanner create() {
+        boolean enabled = Boolean.parseBoolean(System.getProperty("aa.lexer.simd", "true"));
+        if (enabled && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (CharScanner) Class.forName("com.compiler.lexer.VectorCharScanner")
+                    .getDeclaredConstructor()
+                    .newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Fall back to the scalar scanner
+            }
+        }
+        return new CharScanner();
+    }
+
+    boolean isVectorized() {
+        return false;
+    }
+
+    // First index in [from, to) that is not whitespace, or to
+    int skipWhitespace(char[] text, int from, int to) {
+        int i = from;
+        while (i < to && Character.isWhitespace(text[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    // First index of c in [from, to), or -1
+    int indexOf(char[] text, int from, int to, char c) {
+        for (int i = from; i < to; i++) {
+            if (text[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Number of '\n' characters in [from, to)
+    int countNewlines(char[] text, int from, int to) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (text[i] == '\n') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Index of the '*' that starts the first "*#" in [from, to), or -1
+    int indexOfCommentEnd(char[] text, int from, int to) {
+        int i = from;
+        while ((i = indexOf(text, i, to - 1, '*')) >= 0) {
+            if (text[i + 1] == '#') {
+                return i;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    // Byte variants for UTF-8 input. Only ASCII bytes are matched; bytes of
+    // multi-byte sequences are all >= 0x80 and never equal an ASCII target.
+
+    // First index in [from, to) that is not an ASCII whitespace byte, or to
+    int skipWhitespace(byte[] text, int from, int to) {
+        int i = from;
+        while (i < to && isAsciiWhitespace(text[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    int indexOf(byte[] text, int from, int to, byte b) {
+        for (int i = from; i < to; i++) {
+            if (text[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    int countNewlines(byte[] text, int from, int to) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (text[i] == '\n') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    int indexOfCommentEnd(byte[] text, int from, int to) {
+        int i = from;
+        while ((i = indexOf(text, i, to - 1, (byte) '*')) >= 0) {
+            if (text[i + 1] == '#') {
+                return i;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    // Same set as Character.isWhitespace restricted to ASCII
+    static boolean isAsciiWhitespace(byte b) {
+        return b == ' ' || (b >= 0x09 && b <= 0x0D) || (b >= 0x1C && b <= 0x1F);
+    }
+}
@@ -1,6 +1,9 @@
 package com.compiler.lexer;
 
 import com.compiler.error.ErrorHandler;
+import com.compiler.jfr.ErrorBurstEvent;
+import com.compiler.jfr.LexEvent;
+import java.nio.ByteBuffer;
 import java.util.*;
 
 public class LexicalAnalyzer {
@@ -8,13 +11,40 @@ public class LexicalAnalyzer {
     private final ErrorHandler errorHandler;
     private final List<Token> tokens;
     private final Map<String, TokenType> keywords;
+    private final Set<RecoveryStrategy> recovery;
+    private String sourceName = "<input>";
     private int tokenCount = 0;
+    private int invalidTokens = 0;
+    private LexEvent lexEvent;
+    private ErrorBurstEvent burst;
+    private Token burstStart;
+    private boolean finished;
 
     public LexicalAnalyzer(String input, ErrorHandler errorHandler) {
-        this.reader = new SourceReader(input);
+        this(input, errorHandler, EnumSet.noneOf(RecoveryStrategy.class));
+    }
+
+    public LexicalAnalyzer(String input, ErrorHandler errorHandler, Set<RecoveryStrategy> recovery) {
+        this(SourceReader.of(input), errorHandler, recovery);
+    }
+
+    // Lexes UTF-8 bytes directly; only literal and comment contents are decoded
+    public LexicalAnalyzer(byte[] utf8, ErrorHandler errorHandler, Set<RecoveryStrategy> recovery) {
+        this(SourceReader.of(utf8), errorHandler, recovery);
+    }
+
+    public LexicalAnalyzer(ByteBuffer utf8, ErrorHandler errorHandler, Set<RecoveryStrategy> recovery) {
+        this(SourceReader.of(utf8), errorHandler, recovery);
+    }
+
+    private LexicalAnalyzer(SourceReader reader, ErrorHandler errorHandler, Set<RecoveryStrategy> recovery) {
+        this.reader = reader;
         this.errorHandler = errorHandler;
         this.tokens = new ArrayList<>();
         this.keywords = initializeKeywords();
+        this.recovery = recovery.isEmpty()
+            ? EnumSet.noneOf(RecoveryStrategy.class)
+            : EnumSet.copyOf(recovery);
     }
 
     private Map<String, TokenType> initializeKeywords() {
@@ -32,7 +62,27 @@ public class LexicalAnalyzer {
         return keywords;
     }
 
+    public void setSourceName(String sourceName) {
+        this.sourceName = sourceName;
+    }
+
     public List<Token> tokenize() {
+        Token token;
+        do {
+            token = next();
+            tokens.add(token);
+        } while (token.getType() != TokenType.EOF);
+        return tokens;
+    }
+
+    // Streaming access: returns one token per call and EOF once the input is exhausted.
+    // Tokens are not retained, so callers can process them without building a list.
+    public Token next() {
+        if (lexEvent == null) {
+            lexEvent = new LexEvent();
+            lexEvent.begin();
+        }
+
         while (reader.hasNext()) {
             skipWhitespace();
             
@@ -42,30 +92,85 @@ public class LexicalAnalyzer {
 
             Token token = nextToken();
             if (token != null) {
-                tokens.add(token);
                 tokenCount++;
+                trackErrorBurst(token);
+                if (token.getType() == TokenType.INVALID && recovers(RecoveryStrategy.SKIP_TO_DELIMITER)) {
+                    skipToDelimiter();
+                }
+                return token;
             }
         }
-        
-        tokens.add(new Token(TokenType.EOF, "", reader.getLine(), reader.getColumn()));
-        return tokens;
+
+        finish();
+        return new Token(TokenType.EOF, "", reader.getPosition(), reader);
     }
 
-    private void skipWhitespace() {
-        while (reader.hasNext() && Character.isWhitespace(reader.current())) {
+    private void trackErrorBurst(Token token) {
+        if (token.getType() == TokenType.INVALID) {
+            invalidTokens++;
+            if (burst == null) {
+                burst = new ErrorBurstEvent();
+                burst.begin();
+                burstStart = token;
+            }
+            burst.invalidTokens++;
+        } else if (burst != null) {
+            commitBurst();
+        }
+    }
+
+    // Positions are resolved only if the event is recorded, to keep line lookups off the hot path
+    private void commitBurst() {
+        if (burst.shouldCommit()) {
+            burst.line = burstStart.getLine();
+            burst.column = burstStart.getColumn();
+            burst.commit();
+        }
+        burst = null;
+        burstStart = null;
+    }
+
+    private void error(int offset, String message) {
+        errorHandler.addError(reader.lineOf(offset), reader.columnOf(offset), message);
+    }
+
+    private void finish() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+
+        if (burst != null) {
+            commitBurst();
+        }
+        if (lexEvent.shouldCommit()) {
+            lexEvent.source = sourceName;
+            lexEvent.bytes = reader.byteLength();
+            lexEvent.tokens = tokenCount;
+            lexEvent.invalidTokens = invalidTokens;
+            lexEvent.commit();
+        }
+    }
+
+    // Panic mode: resynchronize on the next statement terminator or line break
+    private void skipToDelimiter() {
+        while (reader.hasNext() && reader.current() != ';' && reader.current() != '\n') {
             reader.advance();
         }
     }
 
+    private void skipWhitespace() {
+        reader.skipWhitespace();
+    }
+
     private Token nextToken() {
         char current = reader.current();
-        int line = reader.getLine();
-        int column = reader.getColumn();
+        int offset = reader.getPosition();
 
         // Handle global variable marker
         if (current == '@') {
             reader.advance();
-            return new Token(TokenType.GLOBAL, "@", line, column);
+            return new Token(TokenType.GLOBAL, "@", offset, reader);
         }
 
         // Handle comments
@@ -73,47 +178,48 @@ public class LexicalAnalyzer {
             reader.advance();
             if (reader.hasNext() && reader.current() == '*') {
                 reader.advance();
-                return handleMultiLineComment(line, column);
+                return handleMultiLineComment(offset);
             }
-            return handleSingleLineComment(line, column);
+            return handleSingleLineComment(offset);
         }
 
         // Handle identifiers and keywords
-        if (isLetter(current)) {
-            return handleIdentifierOrKeyword(line, column);
+        if (isLetter(current) || (recovers(RecoveryStrategy.SKIP_TO_END_OF_WORD) && isUpperCase(current))) {
+            return handleIdentifierOrKeyword(offset);
         }
 
         // Handle numbers
         if (isDigit(current)) {
-            return handleNumber(line, column);
+            return handleNumber(offset);
         }
 
         // Handle strings
         if (current == '"') {
-            return handleString(line, column);
+            return handleString(offset);
         }
 
         // Handle characters
         if (current == '\'') {
-            return handleCharacter(line, column);
+            return handleCharacter(offset);
         }
 
         // Handle comparison operators
         if (current == '=' || current == '!' || current == '<' || current == '>') {
-            return handleComparisonOperator(line, column);
+            return handleComparisonOperator(offset);
         }
 
         // Handle other operators and symbols
-        return handleOperator(line, column);
+        return handleOperator(offset);
     }
 
-    private Token handleIdentifierOrKeyword(int line, int column) {
+    private Token handleIdentifierOrKeyword(int offset) {
         StringBuilder builder = new StringBuilder();
 
-        while (reader.hasNext() && (isLetter(reader.current()) || isDigit(reader.current()))) {
+        while (reader.hasNext() && isWordChar(reader.current())) {
             if (builder.length() >= 32) {
-                errorHandler.addError(line, column, "Identifier too long (max 32 characters)");
-                return new Token(TokenType.INVALID, builder.toString(), line, column);
+                error(offset, "Identifier too long (max 32 characters)");
+                skipRestOfWord(builder);
+                return new Token(TokenType.INVALID, builder.toString(), offset, reader);
             }
             builder.append(reader.current());
             reader.advance();
@@ -123,14 +229,14 @@ public class LexicalAnalyzer {
         
         // Check if identifier is all lowercase
         if (!word.equals(word.toLowerCase())) {
-            errorHandler.addError(line, column, "Identifiers must be lowercase");
-            return new Token(TokenType.INVALID, word, line, column);
+            error(offset, "Identifiers must be lowercase");
+            return new Token(TokenType.INVALID, word, offset, reader);
         }
 
-        return new Token(keywords.getOrDefault(word, TokenType.IDENTIFIER), word, line, column);
+        return new Token(keywords.getOrDefault(word, TokenType.IDENTIFIER), word, offset, reader);
     }
 
-    private Token handleNumber(int line, int column) {
+    private Token handleNumber(int offset) {
         StringBuilder builder = new StringBuilder();
         boolean isDecimal = false;
         int decimalPlaces = 0;
@@ -138,15 +244,17 @@ public class LexicalAnalyzer {
         while (reader.hasNext() && (isDigit(reader.current()) || reader.current() == '.')) {
             if (reader.current() == '.') {
                 if (isDecimal) {
-                    errorHandler.addError(line, column, "Invalid number format: multiple decimal points");
-                    return new Token(TokenType.INVALID, builder.toString(), line, column);
+                    error(offset, "Invalid number format: multiple decimal points");
+                    skipRestOfWord(builder);
+                    return new Token(TokenType.INVALID, builder.toString(), offset, reader);
                 }
                 isDecimal = true;
             } else if (isDecimal) {
                 decimalPlaces++;
                 if (decimalPlaces > 5) {
-                    errorHandler.addError(line, column, "Decimal numbers cannot exceed 5 decimal places");
-                    return new Token(TokenType.INVALID, builder.toString(), line, column);
+                    error(offset, "Decimal numbers cannot exceed 5 decimal places");
+                    skipRestOfWord(builder);
+                    return new Token(TokenType.INVALID, builder.toString(), offset, reader);
                 }
             }
             builder.append(reader.current());
@@ -154,112 +262,138 @@ public class LexicalAnalyzer {
         }
 
         return new Token(isDecimal ? TokenType.DECIMAL_LITERAL : TokenType.INTEGER_LITERAL, 
-                        builder.toString(), line, column);
+                        builder.toString(), offset, reader);
     }
 
-    private Token handleString(int line, int column) {
-        StringBuilder builder = new StringBuilder();
+    private Token handleString(int offset) {
         reader.advance(); // Skip opening quote
-
-        while (reader.hasNext() && reader.current() != '"') {
-            builder.append(reader.current());
-            reader.advance();
-        }
+        int start = reader.getPosition();
+        int end = reader.find('"');
+        reader.jumpTo(end);
+        String value = reader.text(start, end);
 
         if (!reader.hasNext()) {
-            errorHandler.addError(line, column, "Unterminated string literal");
-            return new Token(TokenType.INVALID, builder.toString(), line, column);
+            error(offset, "Unterminated string literal");
+            return new Token(TokenType.INVALID, value, offset, reader);
         }
 
         reader.advance(); // Skip closing quote
-        return new Token(TokenType.STRING_LITERAL, builder.toString(), line, column);
+        return new Token(TokenType.STRING_LITERAL, value, offset, reader);
     }
 
-    private Token handleCharacter(int line, int column) {
+    private Token handleCharacter(int offset) {
         reader.advance(); // Skip opening quote
 
         if (!reader.hasNext()) {
-            errorHandler.addError(line, column, "Unterminated character literal");
-            return new Token(TokenType.INVALID, "", line, column);
+            error(offset, "Unterminated character literal");
+            return new Token(TokenType.INVALID, "", offset, reader);
         }
 
+        int start = reader.getPosition();
         char value = reader.current();
         reader.advance();
 
         if (!reader.hasNext() || reader.current() != '\'') {
-            errorHandler.addError(line, column, "Unterminated character literal");
-            return new Token(TokenType.INVALID, String.valueOf(value), line, column);
+            error(offset, "Unterminated character literal");
+            return new Token(TokenType.INVALID, reader.text(start, reader.getPosition()), offset, reader);
+        }
+
+        // A char holds one UTF-16 unit, so supplementary characters are rejected
+        // the same way whether the source is a String or UTF-8 bytes
+        if (Character.isSurrogate(value)) {
+            String text = reader.text(start, reader.getPosition());
+            reader.advance(); // Skip closing quote
+            error(offset, "Character literal out of range: " + text);
+            return new Token(TokenType.INVALID, text, offset, reader);
         }
 
         reader.advance(); // Skip closing quote
-        return new Token(TokenType.CHARACTER_LITERAL, String.valueOf(value), line, column);
+        return new Token(TokenType.CHARACTER_LITERAL, String.valueOf(value), offset, reader);
     }
 
-    private Token handleComparisonOperator(int line, int column) {
+    private Token handleComparisonOperator(int offset) {
         char current = reader.current();
         reader.advance();
 
-        if (reader.hasNext() && reader.current() == '=') {
+        // There are no <= or >= operators, so '=' after them is a token of its own
+        if ((current == '=' || current == '!') && reader.hasNext() && reader.current() == '=') {
             reader.advance();
-            if (current == '=') return new Token(TokenType.EQUALS, "==", line, column);
-            if (current == '!') return new Token(TokenType.NOT_EQUALS, "!=", line, column);
+            if (current == '=') return new Token(TokenType.EQUALS, "==", offset, reader);
+            if (current == '!') return new Token(TokenType.NOT_EQUALS, "!=", offset, reader);
         }
 
-        if (current == '<') return new Token(TokenType.LESS_THAN, "<", line, column);
-        if (current == '>') return new Token(TokenType.GREATER_THAN, ">", line, column);
+        if (current == '<') return new Token(TokenType.LESS_THAN, "<", offset, reader);
+        if (current == '>') return new Token(TokenType.GREATER_THAN, ">", offset, reader);
+        if (current == '=') return new Token(TokenType.ASSIGN, "=", offset, reader);
 
-        return new Token(current == '=' ? TokenType.ASSIGN : TokenType.INVALID, 
-                        String.valueOf(current), line, column);
+        return invalidCharacter(offset);
     }
 
-    private Token handleOperator(int line, int column) {
+    private Token handleOperator(int offset) {
         char current = reader.current();
         reader.advance();
 
         switch (current) {
-            case '+': return new Token(TokenType.PLUS, "+", line, column);
-            case '-': return new Token(TokenType.MINUS, "-", line, column);
-            case '*': return new Token(TokenType.MULTIPLY, "*", line, column);
-            case '/': return new Token(TokenType.DIVIDE, "/", line, column);
-            case '%': return new Token(TokenType.MODULUS, "%", line, column);
-            case '^': return new Token(TokenType.EXPONENT, "^", line, column);
-            case ';': return new Token(TokenType.SEMICOLON, ";", line, column);
+            case '+': return new Token(TokenType.PLUS, "+", offset, reader);
+            case '-': return new Token(TokenType.MINUS, "-", offset, reader);
+            case '*': return new Token(TokenType.MULTIPLY, "*", offset, reader);
+            case '/': return new Token(TokenType.DIVIDE, "/", offset, reader);
+            case '%': return new Token(TokenType.MODULUS, "%", offset, reader);
+            case '^': return new Token(TokenType.EXPONENT, "^", offset, reader);
+            case ';': return new Token(TokenType.SEMICOLON, ";", offset, reader);
             default:
-                errorHandler.addError(line, column, "Invalid character: " + current);
-                return new Token(TokenType.INVALID, String.valueOf(current), line, column);
+                return invalidCharacter(offset);
         }
     }
 
-    private Token handleSingleLineComment(int line, int column) {
-        StringBuilder comment = new StringBuilder();
+    // The offending character has been consumed; its text is read back from the source
+    // so that a supplementary character is reported whole on both input paths
+    private Token invalidCharacter(int offset) {
+        int first = reader.getPosition();
+        if (recovers(RecoveryStrategy.MERGE_INVALID_RUNS)) {
+            while (reader.hasNext() && isInvalidStart(reader.current())) {
+                reader.advance();
+            }
+        }
+
+        String run = reader.text(offset, reader.getPosition());
+        error(offset, reader.getPosition() == first
+            ? "Invalid character: " + run
+            : "Invalid characters: " + run);
+        return new Token(TokenType.INVALID, run, offset, reader);
+    }
 
-        while (reader.hasNext() && reader.current() != '\n') {
-            comment.append(reader.current());
+    // Consumes the remainder of a malformed identifier or number so it yields a single error
+    private void skipRestOfWord(StringBuilder builder) {
+        if (!recovers(RecoveryStrategy.SKIP_TO_END_OF_WORD)) {
+            return;
+        }
+        while (reader.hasNext() && (isWordChar(reader.current()) || reader.current() == '.')) {
+            builder.append(reader.current());
             reader.advance();
         }
+    }
 
-        return new Token(TokenType.SINGLE_COMMENT, comment.toString(), line, column);
+    // Comment bodies are located with a bulk scan and copied out in one piece
+    private Token handleSingleLineComment(int offset) {
+        int start = reader.getPosition();
+        int end = reader.findLineEnd();
+        reader.jumpTo(end);
+        return new Token(TokenType.SINGLE_COMMENT, reader.text(start, end), offset, reader);
     }
 
-    private Token handleMultiLineComment(int line, int column) {
-        StringBuilder comment = new StringBuilder();
+    private Token handleMultiLineComment(int offset) {
+        int start = reader.getPosition();
+        int end = reader.findCommentEnd();
 
-        while (reader.hasNext()) {
-            if (reader.current() == '*') {
-                reader.advance();
-                if (reader.hasNext() && reader.current() == '#') {
-                    reader.advance();
-                    return new Token(TokenType.MULTI_COMMENT_START, comment.toString(), line, column);
-                }
-                comment.append('*');
-            } else {
-                comment.append(reader.current());
-                reader.advance();
-            }
+        if (end >= 0) {
+            reader.jumpTo(end + 2); // Skip closing *#
+            return new Token(TokenType.MULTI_COMMENT_START, reader.text(start, end), offset, reader);
         }
 
-        errorHandler.addError(line, column, "Unterminated multi-line comment");
-        return new Token(TokenType.INVALID, comment.toString(), line, column);
+        reader.jumpTo(reader.length());
+        error(offset, "Unterminated multi-line comment");
+        return new Token(TokenType.INVALID, reader.text(start, reader.length()), offset, reader);
     }
 
     private boolean isLetter(char c) {
@@ -270,6 +404,30 @@ public class LexicalAnalyzer {
         return c >= '0' && c <= '9';
     }
 
+    private boolean isUpperCase(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+    private boolean isWordChar(char c) {
+        return isLetter(c) || isDigit(c)
+            || (recovers(RecoveryStrategy.SKIP_TO_END_OF_WORD) && isUpperCase(c));
+    }
+
+    // True for characters that cannot begin any valid token
+    private boolean isInvalidStart(char c) {
+        if (Character.isWhitespace(c) || isLetter(c) || isDigit(c)) {
+            return false;
+        }
+        if (isUpperCase(c) && recovers(RecoveryStrategy.SKIP_TO_END_OF_WORD)) {
+            return false;
+        }
+        return "@#\"'=!<>+-*/%^;".indexOf(c) < 0;
+    }
+
+    private boolean recovers(RecoveryStrategy strategy) {
+        return recovery.contains(strategy);
+    }
+
     public int getTokenCount() {
         return tokenCount;
     }
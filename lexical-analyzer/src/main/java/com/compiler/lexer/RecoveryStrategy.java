@@ -0,0 +1,12 @@
+package com.compiler.lexer;
+
+public enum RecoveryStrategy {
+    // Consume the rest of a malformed identifier or number instead of stopping mid-word
+    SKIP_TO_END_OF_WORD,
+
+    // Fold consecutive invalid characters into a single INVALID token and diagnostic
+    MERGE_INVALID_RUNS,
+
+    // After an INVALID token, discard input up to the next ';' or newline
+    SKIP_TO_DELIMITER
+}
@@ -1,60 +1,203 @@
 package com.compiler.lexer;
 
-import java.io.IOException;
-import java.io.Reader;
-import java.io.StringReader;
+import java.nio.ByteBuffer;
 
+// Cursor over the source text. Positions are indexes into the underlying storage:
+// chars for String input, bytes for UTF-8 input (see Utf8SourceReader).
 public class SourceReader {
-    private final Reader reader;
-    private int currentChar;
-    private int line = 1;
-    private int column = 0;
-    private boolean wasNewLine = false;
+    protected static final CharScanner SCANNER = CharScanner.get();
 
+    private final char[] text;   // null when a subclass supplies its own storage
+    protected final int length;
+    protected int position = 0;
+    // Offset of the first character of each line. Tokens resolve positions from other
+    // threads (StagedPipeline), so the finished array is published through a volatile
+    private volatile int[] lineStarts;
+
+    /** @deprecated use {@link #of(String)}, which also has byte-array overloads */
+    @Deprecated
     public SourceReader(String input) {
-        this.reader = new StringReader(input);
-        advance();
+        this.text = input.toCharArray();
+        this.length = text.length;
     }
 
-    public void advance() {
-        try {
-            currentChar = reader.read();
-            if (wasNewLine) {
-                line++;
-                column = 0;
-                wasNewLine = false;
-            }
-            if (currentChar == '\n') {
-                wasNewLine = true;
-            } else {
-                column++;
-            }
-        } catch (IOException e) {
-            currentChar = -1;
+    protected SourceReader(int length) {
+        this.text = null;
+        this.length = length;
+    }
+
+    @SuppressWarnings("deprecation")
+    public static SourceReader of(String input) {
+        return new SourceReader(input);
+    }
+
+    public static SourceReader of(byte[] utf8) {
+        return new Utf8SourceReader(utf8, 0, utf8.length);
+    }
+
+    public static SourceReader of(ByteBuffer utf8) {
+        if (utf8.hasArray()) {
+            return new Utf8SourceReader(utf8.array(), utf8.arrayOffset() + utf8.position(), utf8.remaining());
         }
+        byte[] copy = new byte[utf8.remaining()];
+        utf8.duplicate().get(copy);
+        return new Utf8SourceReader(copy, 0, copy.length);
+    }
+
+    // Raw unit at index: a char, or a byte widened without sign
+    protected int unitAt(int index) {
+        return text[index];
+    }
+
+    // Number of storage units taken by the character at index; a surrogate
+    // pair is one character
+    protected int unitLength(int index) {
+        return Character.isHighSurrogate(text[index]) && index + 1 < length
+            && Character.isLowSurrogate(text[index + 1]) ? 2 : 1;
     }
 
+    // The character at the current position; the high surrogate for a
+    // supplementary character
     public char current() {
-        return (char) currentChar;
+        return position < length ? text[position] : (char) -1;
+    }
+
+    public String text(int from, int to) {
+        return new String(text, from, to - from);
+    }
+
+    protected int countNewlines(int from, int to) {
+        return SCANNER.countNewlines(text, from, to);
+    }
+
+    protected int scanWhitespace(int from) {
+        return SCANNER.skipWhitespace(text, from, length);
+    }
+
+    protected int indexOf(int from, char c) {
+        return SCANNER.indexOf(text, from, length, c);
+    }
+
+    protected int indexOfCommentEnd(int from) {
+        return SCANNER.indexOfCommentEnd(text, from, length);
+    }
+
+    public void advance() {
+        if (position < length) {
+            position += unitLength(position);
+        }
     }
 
     public boolean hasNext() {
-        return currentChar != -1;
+        return position < length;
     }
 
     public int getLine() {
-        return line;
+        return lineOf(position);
     }
 
     public int getColumn() {
-        return column;
+        return columnOf(position);
     }
 
-    public void close() {
-        try {
-            reader.close();
-        } catch (IOException e) {
-            // Ignore
+    public int getPosition() {
+        return position;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    // Size of the input in UTF-8 bytes, computed on demand for char storage
+    public int byteLength() {
+        int bytes = 0;
+        for (int i = 0; i < length; i++) {
+            char c = text[i];
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isSurrogate(c)) {
+                bytes += 2;    // a surrogate pair encodes as 4 bytes
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    public void jumpTo(int target) {
+        position = Math.min(target, length);
+    }
+
+    // 1-based line containing offset
+    public int lineOf(int offset) {
+        int[] starts = lineStarts();
+        int low = 0;
+        int high = starts.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (starts[mid] <= offset) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
         }
+        return low + 1;
+    }
+
+    // 1-based column of offset; a newline belongs to the end of its line,
+    // so it shares the previous column
+    public int columnOf(int offset) {
+        int lineStart = lineStarts()[lineOf(offset) - 1];
+        int column = offset - lineStart + 1 - extraUnits(lineStart, offset);
+        return offset < length && unitAt(offset) == '\n' ? column - 1 : column;
+    }
+
+    // Storage units in [from, to) beyond the UTF-16 units they encode, which is what
+    // columns count for every reader
+    protected int extraUnits(int from, int to) {
+        return 0;
+    }
+
+    // Built on first use with bulk newline scans, so lexing itself never tracks lines.
+    // Racing threads may each build it; every copy is complete and identical.
+    private int[] lineStarts() {
+        int[] starts = lineStarts;
+        if (starts == null) {
+            starts = new int[countNewlines(0, length) + 1];
+            int count = 1;
+            int next = indexOf(0, '\n');
+            while (next >= 0) {
+                starts[count++] = next + 1;
+                next = indexOf(next + 1, '\n');
+            }
+            lineStarts = starts;
+        }
+        return starts;
+    }
+
+    public void skipWhitespace() {
+        jumpTo(scanWhitespace(position));
+    }
+
+    // Index of the next occurrence of c at or after the current position, or the input length
+    public int find(char c) {
+        int index = indexOf(position, c);
+        return index < 0 ? length : index;
+    }
+
+    // Index of the next '\n' at or after the current position, or the input length
+    public int findLineEnd() {
+        return find('\n');
+    }
+
+    // Index of the next "*#" at or after the current position, or -1
+    public int findCommentEnd() {
+        return indexOfCommentEnd(position);
+    }
+
+    public void close() {
+        // Nothing to release; the input is held in memory
     }
-}
\ No newline at end of file
+}
@@ -1,28 +1,65 @@
 package com.compiler.lexer;
 
+// Tokens from the lexer keep a reference to their SourceReader, and through it the
+// whole source text, for as long as any of them is reachable. All tokens of one source
+// share that reader, so the per-token cost is one reference; callers that keep tokens
+// long after lexing and care about the source's memory should copy positions out.
 public class Token {
     private final TokenType type;
     private final String value;
-    private final int line;
-    private final int column;
+    private final int offset;
+    private final SourceReader source;
+    // Line in the high half and column in the low half, published together;
+    // 0 until resolved from source, since lines start at 1
+    private volatile long position;
 
     public Token(TokenType type, String value, int line, int column) {
         this.type = type;
         this.value = value;
-        this.line = line;
-        this.column = column;
+        this.offset = -1;
+        this.source = null;
+        this.position = pack(line, column);
+    }
+
+    // Lexer tokens record only their offset; line and column are looked up on first use
+    Token(TokenType type, String value, int offset, SourceReader source) {
+        this.type = type;
+        this.value = value;
+        this.offset = offset;
+        this.source = source;
     }
 
     // Getters
     public TokenType getType() { return type; }
     public String getValue() { return value; }
-    public int getLine() { return line; }
-    public int getColumn() { return column; }
+    public int getOffset() { return offset; }
+
+    public int getLine() {
+        return (int) (position() >>> 32);
+    }
+
+    public int getColumn() {
+        return (int) position();
+    }
+
+    // Threads racing to resolve compute the same value, so the last write is harmless
+    private long position() {
+        long packed = position;
+        if (packed == 0 && source != null) {
+            packed = pack(source.lineOf(offset), source.columnOf(offset));
+            position = packed;
+        }
+        return packed;
+    }
+
+    private static long pack(int line, int column) {
+        return ((long) line << 32) | (column & 0xFFFFFFFFL);
+    }
 
     @Override
     public String toString() {
         return String.format("Token{type=%s, value='%s', position=(%d,%d)}", 
-            type, value, line, column);
+            type, value, getLine(), getColumn());
     }
 
     // Helper method to check if token is a specific type
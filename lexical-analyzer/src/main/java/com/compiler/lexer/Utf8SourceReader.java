@@ -0,0 +1,129 @@
+package com.compiler.lexer;
+
+import java.nio.charset.StandardCharsets;
+
+// Reads UTF-8 input in place. Every AA token outside literals and comments is ASCII,
+// so the lexer works on raw bytes and only text() decodes, for literal and comment
+// contents. Positions count bytes; columns count UTF-16 units, as for String input,
+// so a supplementary character takes two columns.
+class Utf8SourceReader extends SourceReader {
+    private final byte[] bytes;
+    private final int offset;
+
+    // Extra bytes counted so far on the current line, for incremental columns
+    private int countedFrom = -1;
+    private int countedTo;
+    private int extraBytes;
+
+    Utf8SourceReader(byte[] bytes, int offset, int length) {
+        super(length);
+        this.bytes = bytes;
+        this.offset = offset;
+    }
+
+    @Override
+    protected int unitAt(int index) {
+        return bytes[offset + index] & 0xFF;
+    }
+
+    // Multi-byte sequences are stepped over as one character
+    @Override
+    protected int unitLength(int index) {
+        int lead = unitAt(index);
+        int units;
+        if (lead < 0xC0) {
+            units = 1;
+        } else if (lead < 0xE0) {
+            units = 2;
+        } else if (lead < 0xF0) {
+            units = 3;
+        } else {
+            units = 4;
+        }
+        return Math.min(units, length - index);
+    }
+
+    // Columns are requested in increasing order within a line, so only the bytes
+    // since the previous request are examined. Synchronized because tokens may
+    // resolve their columns on another thread than the lexer's
+    @Override
+    protected synchronized int extraUnits(int from, int to) {
+        if (countedFrom != from || countedTo > to) {
+            countedFrom = from;
+            countedTo = from;
+            extraBytes = 0;
+        }
+        // Every continuation byte is extra, except that a four-byte sequence
+        // encodes a surrogate pair and so keeps one of its three
+        for (int i = countedTo; i < to; i++) {
+            int b = bytes[offset + i] & 0xFF;
+            if ((b & 0xC0) == 0x80) {
+                extraBytes++;
+            } else if (b >= 0xF0) {
+                extraBytes--;
+            }
+        }
+        countedTo = to;
+        return extraBytes;
+    }
+
+    // Already counted in bytes
+    @Override
+    public int byteLength() {
+        return length;
+    }
+
+    @Override
+    public char current() {
+        if (position >= length) {
+            return (char) -1;
+        }
+        int lead = unitAt(position);
+        if (lead < 0x80) {
+            return (char) lead;
+        }
+        // Rare outside literals: decode the one character for checks. A supplementary
+        // character yields its high surrogate, as the String reader does
+        return text(position, position + unitLength(position)).charAt(0);
+    }
+
+    @Override
+    public String text(int from, int to) {
+        return new String(bytes, offset + from, to - from, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected int countNewlines(int from, int to) {
+        return SCANNER.countNewlines(bytes, offset + from, offset + to);
+    }
+
+    @Override
+    protected int scanWhitespace(int from) {
+        int i = from;
+        while (true) {
+            i = SCANNER.skipWhitespace(bytes, offset + i, offset + length) - offset;
+            if (i >= length || unitAt(i) < 0x80) {
+                return i;
+            }
+            // Non-ASCII: only Unicode whitespace continues the run
+            int units = unitLength(i);
+            String decoded = text(i, i + units);
+            if (decoded.length() != 1 || !Character.isWhitespace(decoded.charAt(0))) {
+                return i;
+            }
+            i += units;
+        }
+    }
+
+    @Override
+    protected int indexOf(int from, char c) {
+        int index = SCANNER.indexOf(bytes, offset + from, offset + length, (byte) c);
+        return index < 0 ? -1 : index - offset;
+    }
+
+    @Override
+    protected int indexOfCommentEnd(int from) {
+        int index = SCANNER.indexOfCommentEnd(bytes, offset + from, offset + length);
+        return index < 0 ? -1 : index - offset;
+    }
+}
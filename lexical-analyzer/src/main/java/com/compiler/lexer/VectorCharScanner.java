@@ -0,0 +1,118 @@
+package com.compiler.lexer;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// SIMD implementation of CharScanner. Only loaded reflectively, after checking that
+// jdk.incubator.vector is present, so the rest of the lexer never links against it.
+final class VectorCharScanner extends CharScanner {
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+    private static final VectorSpecies<Byte> BYTE_SPECIES = ByteVector.SPECIES_PREFERRED;
+    private static final int BYTE_LANES = BYTE_SPECIES.length();
+
+    @Override
+    boolean isVectorized() {
+        return true;
+    }
+
+    @Override
+    int skipWhitespace(char[] text, int from, int to) {
+        int i = from;
+        while (true) {
+            int bound = i + SPECIES.loopBound(to - i);
+            for (; i < bound; i += LANES) {
+                ShortVector v = ShortVector.fromCharArray(SPECIES, text, i);
+                // ASCII whitespace: ' ', '\t'..'\r' and the separators 0x1C..0x1F
+                VectorMask<Short> space = v.eq((short) ' ')
+                    .or(v.compare(VectorOperators.UNSIGNED_GE, (short) 0x09)
+                         .and(v.compare(VectorOperators.UNSIGNED_LE, (short) 0x0D)))
+                    .or(v.compare(VectorOperators.UNSIGNED_GE, (short) 0x1C)
+                         .and(v.compare(VectorOperators.UNSIGNED_LE, (short) 0x1F)));
+                if (!space.allTrue()) {
+                    i += space.not().firstTrue();
+                    break;
+                }
+            }
+            if (i >= bound) {
+                i = super.skipWhitespace(text, i, to);
+            }
+            // Non-ASCII whitespace is rare; confirm with the scalar check and resume
+            if (i < to && text[i] > 0x7F && Character.isWhitespace(text[i])) {
+                i++;
+                continue;
+            }
+            return i;
+        }
+    }
+
+    @Override
+    int indexOf(char[] text, int from, int to, char c) {
+        int i = from;
+        int bound = i + SPECIES.loopBound(Math.max(0, to - i));
+        short target = (short) c;
+        for (; i < bound; i += LANES) {
+            VectorMask<Short> hit = ShortVector.fromCharArray(SPECIES, text, i).eq(target);
+            if (hit.anyTrue()) {
+                return i + hit.firstTrue();
+            }
+        }
+        return super.indexOf(text, i, to, c);
+    }
+
+    @Override
+    int countNewlines(char[] text, int from, int to) {
+        int i = from;
+        int bound = i + SPECIES.loopBound(Math.max(0, to - i));
+        int count = 0;
+        for (; i < bound; i += LANES) {
+            count += ShortVector.fromCharArray(SPECIES, text, i).eq((short) '\n').trueCount();
+        }
+        return count + super.countNewlines(text, i, to);
+    }
+
+    @Override
+    int skipWhitespace(byte[] text, int from, int to) {
+        int i = from;
+        int bound = i + BYTE_SPECIES.loopBound(Math.max(0, to - i));
+        for (; i < bound; i += BYTE_LANES) {
+            ByteVector v = ByteVector.fromArray(BYTE_SPECIES, text, i);
+            VectorMask<Byte> space = v.eq((byte) ' ')
+                .or(v.compare(VectorOperators.UNSIGNED_GE, (byte) 0x09)
+                     .and(v.compare(VectorOperators.UNSIGNED_LE, (byte) 0x0D)))
+                .or(v.compare(VectorOperators.UNSIGNED_GE, (byte) 0x1C)
+                     .and(v.compare(VectorOperators.UNSIGNED_LE, (byte) 0x1F)));
+            if (!space.allTrue()) {
+                return i + space.not().firstTrue();
+            }
+        }
+        return super.skipWhitespace(text, i, to);
+    }
+
+    @Override
+    int indexOf(byte[] text, int from, int to, byte b) {
+        int i = from;
+        int bound = i + BYTE_SPECIES.loopBound(Math.max(0, to - i));
+        for (; i < bound; i += BYTE_LANES) {
+            VectorMask<Byte> hit = ByteVector.fromArray(BYTE_SPECIES, text, i).eq(b);
+            if (hit.anyTrue()) {
+                return i + hit.firstTrue();
+            }
+        }
+        return super.indexOf(text, i, to, b);
+    }
+
+    @Override
+    int countNewlines(byte[] text, int from, int to) {
+        int i = from;
+        int bound = i + BYTE_SPECIES.loopBound(Math.max(0, to - i));
+        int count = 0;
+        for (; i < bound; i += BYTE_LANES) {
+            count += ByteVector.fromArray(BYTE_SPECIES, text, i).eq((byte) '\n').trueCount();
+        }
+        return count + super.countNewlines(text, i, to);
+    }
+}
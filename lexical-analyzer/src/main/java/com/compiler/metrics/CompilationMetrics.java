@@ -0,0 +1,262 @@
+package com.compiler.metrics;
+
+import com.compiler.automata.RegularExpression;
+import com.compiler.lexer.Token;
+import com.compiler.lexer.TokenType;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+public class CompilationMetrics {
+    public enum Phase {
+        READ("read"),
+        LEX("lex"),
+        SYMBOL_TABLE("symbol_table");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    public enum Format {
+        JSON,
+        PROMETHEUS;
+
+        public static Format forPath(Path path) {
+            String name = path.getFileName().toString();
+            return name.endsWith(".json") ? JSON : PROMETHEUS;
+        }
+    }
+
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN = initThreadBean();
+
+    private final Map<Phase, Long> phaseNanos;
+    private final Map<Phase, Long> phaseAllocatedBytes;
+    private final Map<TokenType, Integer> tokenCounts;
+    private final Map<String, int[]> automataStates;
+    private long sourceBytes;
+    private int tokens;
+    private int symbols;
+
+    public CompilationMetrics() {
+        this.phaseNanos = new EnumMap<>(Phase.class);
+        this.phaseAllocatedBytes = new EnumMap<>(Phase.class);
+        this.tokenCounts = new EnumMap<>(TokenType.class);
+        this.automataStates = new LinkedHashMap<>();
+    }
+
+    private static com.sun.management.ThreadMXBean initThreadBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean sunBean
+                && sunBean.isThreadAllocatedMemorySupported()) {
+            if (!sunBean.isThreadAllocatedMemoryEnabled()) {
+                sunBean.setThreadAllocatedMemoryEnabled(true);
+            }
+            return sunBean;
+        }
+        return null;
+    }
+
+    private static long allocatedBytes() {
+        return THREAD_BEAN == null ? 0 : THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    public PhaseTimer start(Phase phase) {
+        return new PhaseTimer(phase);
+    }
+
+    public void recordSourceBytes(long bytes) {
+        sourceBytes += bytes;
+    }
+
+    public void recordTokens(List<Token> tokenList) {
+        for (Token token : tokenList) {
+            tokenCounts.merge(token.getType(), 1, Integer::sum);
+        }
+        tokens += tokenList.size();
+    }
+
+    public void recordSymbols(int count) {
+        symbols += count;
+    }
+
+    // The DFA count is -1 when the pattern has no full DFA, and is then left out
+    public void recordAutomaton(RegularExpression regex) {
+        automataStates.put(regex.getPattern(), new int[] {
+            regex.getNFA().getStates().size(),
+            regex.getEngine() == RegularExpression.Engine.DFA ? regex.getDFA().getStates().size() : -1
+        });
+    }
+
+    public long getPhaseNanos(Phase phase) {
+        return phaseNanos.getOrDefault(phase, 0L);
+    }
+
+    public long getPhaseAllocatedBytes(Phase phase) {
+        return phaseAllocatedBytes.getOrDefault(phase, 0L);
+    }
+
+    public int getTokenCount(TokenType type) {
+        return tokenCounts.getOrDefault(type, 0);
+    }
+
+    public double getBytesPerSecond() {
+        return perSecond(sourceBytes, getPhaseNanos(Phase.LEX));
+    }
+
+    public double getTokensPerSecond() {
+        return perSecond(tokens, getPhaseNanos(Phase.LEX));
+    }
+
+    private static double perSecond(long amount, long nanos) {
+        return nanos == 0 ? 0.0 : amount * 1_000_000_000.0 / nanos;
+    }
+
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\n");
+        json.append("  \"source_bytes\": ").append(sourceBytes).append(",\n");
+        json.append("  \"tokens\": ").append(tokens).append(",\n");
+        json.append("  \"symbols\": ").append(symbols).append(",\n");
+        json.append(String.format(Locale.ROOT, "  \"bytes_per_second\": %.1f,%n", getBytesPerSecond()));
+        json.append(String.format(Locale.ROOT, "  \"tokens_per_second\": %.1f,%n", getTokensPerSecond()));
+
+        json.append("  \"phases\": {");
+        String separator = "\n";
+        for (Phase phase : Phase.values()) {
+            json.append(separator).append(String.format(
+                "    \"%s\": {\"nanos\": %d, \"allocated_bytes\": %d}",
+                phase.getLabel(), getPhaseNanos(phase), getPhaseAllocatedBytes(phase)));
+            separator = ",\n";
+        }
+        json.append("\n  },\n");
+
+        json.append("  \"token_types\": {");
+        separator = "\n";
+        for (Map.Entry<TokenType, Integer> entry : tokenCounts.entrySet()) {
+            json.append(separator).append(String.format("    \"%s\": %d", entry.getKey(), entry.getValue()));
+            separator = ",\n";
+        }
+        json.append("\n  },\n");
+
+        json.append("  \"automata\": [");
+        separator = "\n";
+        for (Map.Entry<String, int[]> entry : automataStates.entrySet()) {
+            int dfaStates = entry.getValue()[1];
+            json.append(separator).append(String.format(
+                "    {\"pattern\": \"%s\", \"nfa_states\": %d, \"dfa_states\": %s}",
+                escapeJson(entry.getKey()), entry.getValue()[0], dfaStates < 0 ? "null" : dfaStates));
+            separator = ",\n";
+        }
+        json.append("\n  ]\n}\n");
+        return json.toString();
+    }
+
+    public String toPrometheus() {
+        StringBuilder prom = new StringBuilder();
+        prom.append("# TYPE aa_source_bytes gauge\n");
+        prom.append("aa_source_bytes ").append(sourceBytes).append('\n');
+        prom.append("# TYPE aa_tokens gauge\n");
+        prom.append("aa_tokens ").append(tokens).append('\n');
+        prom.append("# TYPE aa_symbols gauge\n");
+        prom.append("aa_symbols ").append(symbols).append('\n');
+        prom.append("# TYPE aa_lex_bytes_per_second gauge\n");
+        prom.append(String.format(Locale.ROOT, "aa_lex_bytes_per_second %.1f%n", getBytesPerSecond()));
+        prom.append("# TYPE aa_lex_tokens_per_second gauge\n");
+        prom.append(String.format(Locale.ROOT, "aa_lex_tokens_per_second %.1f%n", getTokensPerSecond()));
+
+        prom.append("# TYPE aa_phase_seconds gauge\n");
+        for (Phase phase : Phase.values()) {
+            prom.append(String.format(Locale.ROOT, "aa_phase_seconds{phase=\"%s\"} %.9f%n",
+                phase.getLabel(), getPhaseNanos(phase) / 1_000_000_000.0));
+        }
+        prom.append("# TYPE aa_phase_allocated_bytes gauge\n");
+        for (Phase phase : Phase.values()) {
+            prom.append(String.format("aa_phase_allocated_bytes{phase=\"%s\"} %d%n",
+                phase.getLabel(), getPhaseAllocatedBytes(phase)));
+        }
+        prom.append("# TYPE aa_token_type_count gauge\n");
+        for (Map.Entry<TokenType, Integer> entry : tokenCounts.entrySet()) {
+            prom.append(String.format("aa_token_type_count{type=\"%s\"} %d%n", entry.getKey(), entry.getValue()));
+        }
+        prom.append("# TYPE aa_automaton_states gauge\n");
+        for (Map.Entry<String, int[]> entry : automataStates.entrySet()) {
+            String pattern = escapeLabel(entry.getKey());
+            prom.append(String.format("aa_automaton_states{pattern=\"%s\",kind=\"nfa\"} %d%n",
+                pattern, entry.getValue()[0]));
+            if (entry.getValue()[1] >= 0) {
+                prom.append(String.format("aa_automaton_states{pattern=\"%s\",kind=\"dfa\"} %d%n",
+                    pattern, entry.getValue()[1]));
+            }
+        }
+        return prom.toString();
+    }
+
+    public void writeTo(Path path, Format format) throws IOException {
+        Files.writeString(path, format == Format.JSON ? toJson() : toPrometheus());
+    }
+
+    public void printSummary() {
+        System.out.println("\nMetrics:");
+        System.out.println("--------");
+        for (Phase phase : Phase.values()) {
+            System.out.printf("%-13s %10.3f ms %12d bytes allocated%n",
+                phase.getLabel(), getPhaseNanos(phase) / 1_000_000.0, getPhaseAllocatedBytes(phase));
+        }
+        System.out.printf("Throughput:   %.0f bytes/s, %.0f tokens/s%n", getBytesPerSecond(), getTokensPerSecond());
+    }
+
+    private static String escapeJson(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> escaped.append("\\\"");
+                case '\\' -> escaped.append("\\\\");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> escaped.append("\\r");
+                case '\t' -> escaped.append("\\t");
+                default -> {
+                    if (c < 0x20 || c == 0x7f) {
+                        escaped.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        escaped.append(c);
+                    }
+                }
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static String escapeLabel(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    public class PhaseTimer implements AutoCloseable {
+        private final Phase phase;
+        private final long startNanos;
+        private final long startAllocated;
+
+        private PhaseTimer(Phase phase) {
+            this.phase = phase;
+            this.startAllocated = allocatedBytes();
+            this.startNanos = System.nanoTime();
+        }
+
+        @Override
+        public void close() {
+            long elapsed = System.nanoTime() - startNanos;
+            long allocated = allocatedBytes() - startAllocated;
+            phaseNanos.merge(phase, elapsed, Long::sum);
+            phaseAllocatedBytes.merge(phase, allocated, Long::sum);
+        }
+    }
+}
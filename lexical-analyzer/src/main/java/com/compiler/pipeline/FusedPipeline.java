@@ -0,0 +1,47 @@
+package com.compiler.pipeline;
+
+import com.compiler.error.ErrorHandler;
+import com.compiler.lexer.LexicalAnalyzer;
+import com.compiler.lexer.RecoveryStrategy;
+import com.compiler.lexer.Token;
+import com.compiler.lexer.TokenType;
+import com.compiler.symboltable.DeclarationProcessor;
+import com.compiler.symboltable.SymbolTable;
+
+import java.util.EnumSet;
+
+// Lexing and declaration handling in a single pass: each token goes straight from the
+// lexer to the declaration processor and is dropped, so no token list is ever built.
+public class FusedPipeline {
+    private final ErrorHandler errorHandler;
+    private final SymbolTable symbolTable;
+    private int tokenCount;
+    private int declarationCount;
+
+    public FusedPipeline(ErrorHandler errorHandler, SymbolTable symbolTable) {
+        this.errorHandler = errorHandler;
+        this.symbolTable = symbolTable;
+    }
+
+    public void run(String source, String sourceName) {
+        LexicalAnalyzer lexer = new LexicalAnalyzer(source, errorHandler, EnumSet.allOf(RecoveryStrategy.class));
+        lexer.setSourceName(sourceName);
+        DeclarationProcessor declarations = new DeclarationProcessor(symbolTable);
+
+        Token token;
+        while ((token = lexer.next()).getType() != TokenType.EOF) {
+            declarations.accept(token);
+        }
+
+        tokenCount += lexer.getTokenCount();
+        declarationCount += declarations.getDeclarationCount();
+    }
+
+    public int getTokenCount() {
+        return tokenCount;
+    }
+
+    public int getDeclarationCount() {
+        return declarationCount;
+    }
+}
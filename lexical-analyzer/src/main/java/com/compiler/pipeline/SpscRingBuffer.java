@@ -0,0 +1,88 @@
+package com.compiler.pipeline;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+// Bounded single-producer/single-consumer queue. Producer and consumer each own one
+// counter and only read the other's, so no locks or CAS loops are needed. A full
+// buffer makes put() wait, which is the backpressure between pipeline stages.
+class SpscRingBuffer<T> {
+    private final AtomicReferenceArray<T> slots;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();   // next slot to read
+    private final AtomicLong tail = new AtomicLong();   // next slot to write
+    private long cachedHead;                            // producer's view of head
+    private long cachedTail;                            // consumer's view of tail
+
+    SpscRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    boolean offer(T item) {
+        long t = tail.get();
+        if (t - cachedHead > mask) {
+            cachedHead = head.get();
+            if (t - cachedHead > mask) {
+                return false;
+            }
+        }
+        slots.lazySet((int) t & mask, item);
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    T poll() {
+        long h = head.get();
+        if (h >= cachedTail) {
+            cachedTail = tail.get();
+            if (h >= cachedTail) {
+                return null;
+            }
+        }
+        int index = (int) h & mask;
+        T item = slots.get(index);
+        slots.lazySet(index, null);
+        head.lazySet(h + 1);
+        return item;
+    }
+
+    // Waits for space; returns false if cancelled is raised while waiting
+    boolean put(T item, BooleanSupplier cancelled) {
+        int idle = 0;
+        while (!offer(item)) {
+            if (cancelled.getAsBoolean()) {
+                return false;
+            }
+            idle = backOff(idle);
+        }
+        return true;
+    }
+
+    // Waits for an item; returns null if cancelled is raised while waiting
+    T take(BooleanSupplier cancelled) {
+        int idle = 0;
+        T item;
+        while ((item = poll()) == null) {
+            if (cancelled.getAsBoolean()) {
+                return null;
+            }
+            idle = backOff(idle);
+        }
+        return item;
+    }
+
+    private static int backOff(int idle) {
+        if (idle < 100) {
+            Thread.onSpinWait();
+        } else if (idle < 200) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(50_000);
+        }
+        return idle + 1;
+    }
+}
@@ -0,0 +1,161 @@
+package com.compiler.pipeline;
+
+import com.compiler.error.Diagnostic;
+import com.compiler.error.DiagnosticsCollector;
+import com.compiler.lexer.LexicalAnalyzer;
+import com.compiler.lexer.RecoveryStrategy;
+import com.compiler.lexer.Token;
+import com.compiler.lexer.TokenType;
+import com.compiler.symboltable.DeclarationProcessor;
+import com.compiler.symboltable.SymbolTable;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs lexing, declaration processing and output on three threads connected by
+ * bounded SPSC ring buffers carrying token batches. Each buffer has a single
+ * producer and consumer, so tokens reach the output in source order and the
+ * result is identical to a sequential run. If any stage fails, the other stages
+ * stop waiting and run() rethrows the first failure.
+ */
+public class StagedPipeline {
+    private static final Token[] END = new Token[0];
+
+    private final int batchSize;
+    private final int queueCapacity;
+
+    public StagedPipeline() {
+        this(256, 64);
+    }
+
+    public StagedPipeline(int batchSize, int queueCapacity) {
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+    }
+
+    public static class Result {
+        private final int tokenCount;
+        private final int declarationCount;
+        private final List<Diagnostic> diagnostics;
+
+        Result(int tokenCount, int declarationCount, List<Diagnostic> diagnostics) {
+            this.tokenCount = tokenCount;
+            this.declarationCount = declarationCount;
+            this.diagnostics = diagnostics;
+        }
+
+        public int getTokenCount() { return tokenCount; }
+        public int getDeclarationCount() { return declarationCount; }
+        public List<Diagnostic> getDiagnostics() { return diagnostics; }
+
+        public boolean hasErrors() {
+            return diagnostics.stream().anyMatch(d -> d.getSeverity() == Diagnostic.Severity.ERROR);
+        }
+    }
+
+    // Tokens, including EOF, are written to out one per line; diagnostics are returned sorted by position
+    public Result run(String source, String sourceName, Writer out) throws IOException, InterruptedException {
+        DiagnosticsCollector diagnostics = new DiagnosticsCollector();
+        SpscRingBuffer<Token[]> lexed = new SpscRingBuffer<>(queueCapacity);
+        SpscRingBuffer<Token[]> declared = new SpscRingBuffer<>(queueCapacity);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        int[] counts = new int[2];
+
+        Thread lexStage = stage("aa-lex", failure, () -> {
+            LexicalAnalyzer lexer = new LexicalAnalyzer(source, diagnostics.handlerFor(sourceName),
+                                                        EnumSet.allOf(RecoveryStrategy.class));
+            lexer.setSourceName(sourceName);
+            Token[] batch = new Token[batchSize];
+            int size = 0;
+            Token token;
+            do {
+                token = lexer.next();
+                batch[size++] = token;
+                if (size == batchSize) {
+                    if (!lexed.put(batch, () -> failure.get() != null)) {
+                        return;
+                    }
+                    batch = new Token[batchSize];
+                    size = 0;
+                }
+            } while (token.getType() != TokenType.EOF);
+            if (size > 0 && !lexed.put(Arrays.copyOf(batch, size), () -> failure.get() != null)) {
+                return;
+            }
+            lexed.put(END, () -> failure.get() != null);
+            counts[0] = lexer.getTokenCount();
+        });
+
+        Thread declarationStage = stage("aa-declare", failure, () -> {
+            SymbolTable symbolTable = new SymbolTable(diagnostics.handlerFor(sourceName));
+            DeclarationProcessor processor = new DeclarationProcessor(symbolTable);
+            Token[] batch;
+            while ((batch = lexed.take(() -> failure.get() != null)) != null) {
+                for (Token token : batch) {
+                    processor.accept(token);
+                }
+                if (!declared.put(batch, () -> failure.get() != null) || batch == END) {
+                    break;
+                }
+            }
+            counts[1] = processor.getDeclarationCount();
+            symbolTable.close();
+        });
+
+        lexStage.start();
+        declarationStage.start();
+
+        // Output runs on the calling thread
+        try {
+            Token[] batch;
+            while ((batch = declared.take(() -> failure.get() != null)) != null && batch != END) {
+                for (Token token : batch) {
+                    out.write(token.toString());
+                    out.write('\n');
+                }
+            }
+            out.flush();
+        } catch (IOException | RuntimeException e) {
+            failure.compareAndSet(null, e);
+        }
+
+        lexStage.join();
+        declarationStage.join();
+        rethrow(failure.get());
+
+        return new Result(counts[0], counts[1], diagnostics.getDiagnostics());
+    }
+
+    private static Thread stage(String name, AtomicReference<Throwable> failure, Runnable body) {
+        Thread thread = new Thread(() -> {
+            try {
+                body.run();
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            }
+        }, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static void rethrow(Throwable failure) throws IOException {
+        if (failure == null) {
+            return;
+        }
+        if (failure instanceof IOException e) {
+            throw e;
+        }
+        if (failure instanceof RuntimeException e) {
+            throw e;
+        }
+        if (failure instanceof Error e) {
+            throw e;
+        }
+        throw new IllegalStateException("Pipeline stage failed", failure);
+    }
+}
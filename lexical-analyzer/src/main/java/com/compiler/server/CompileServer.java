@@ -0,0 +1,345 @@
+package com.compiler.server;
+
+import com.compiler.automata.CompileLimits;
+import com.compiler.automata.DfaBatchTester;
+import com.compiler.automata.DfaMatcher;
+import com.compiler.automata.RegularExpression;
+import com.compiler.error.ErrorHandler;
+import com.compiler.lexer.LexicalAnalyzer;
+import com.compiler.lexer.RecoveryStrategy;
+import com.compiler.lexer.Token;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Long-running lexer daemon. Keeps one warmed-up JVM around and serves
+ * requests over a loopback port or a Unix domain socket.
+ *
+ * Protocol (UTF-8, line based, several requests per connection):
+ *   LEX [name]       followed by source lines and a line containing END
+ *   MATCH <pattern>  followed by input strings, one per line, and a line containing END
+ *   PING             answered with PONG
+ *   QUIT             closes the connection
+ * A LEX response is one TOKEN line per token, a MATCH response one ACCEPT
+ * or REJECT line per input; both are followed by the ErrorHandler's error
+ * and warning lines, then END. Reply lines are escaped so that each one is
+ * a single line: backslash, newline and carriage return are sent as \\,
+ * \n and \r.
+ *
+ * Compiled MATCH patterns are kept in a bounded LRU cache. A request larger
+ * than MAX_REQUEST_LINES lines or MAX_REQUEST_CHARS characters is read to its
+ * END and discarded, and answered with an error line.
+ */
+public class CompileServer implements AutoCloseable {
+    private static final Set<RecoveryStrategy> RECOVERY = EnumSet.allOf(RecoveryStrategy.class);
+    static final int MAX_REQUEST_LINES = 100_000;
+    static final int MAX_REQUEST_CHARS = 8 << 20;
+    static final int MAX_CACHED_PATTERNS = 256;
+    private static final String WARM_UP_SOURCE =
+        "@int counter = 42;\ndec ratio = 3.14159;\nbool flag = true;\nchar c = 'x';\n"
+        + "str s = \"hello\";\n# comment\n#* block\ncomment *#\nout counter * 2 ^ 3 % 5;\n";
+
+    private final ServerSocketChannel server;
+    private final ExecutorService executor;
+    private final Path socketPath;
+    private final Map<String, CompiledPattern> patterns = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompiledPattern> eldest) {
+            return size() > MAX_CACHED_PATTERNS;
+        }
+    };
+    private volatile boolean running = true;
+
+    // A pattern's matcher and its compile diagnostics, replayed on every request for it
+    private static final class CompiledPattern {
+        final DfaMatcher matcher;    // null if the pattern did not compile
+        final List<String> diagnostics;
+
+        CompiledPattern(DfaMatcher matcher, List<String> diagnostics) {
+            this.matcher = matcher;
+            this.diagnostics = diagnostics;
+        }
+    }
+
+    private CompileServer(ServerSocketChannel server, Path socketPath) {
+        this.server = server;
+        this.socketPath = socketPath;
+        this.executor = newRequestExecutor();
+    }
+
+    public static CompileServer onPort(int port) throws IOException {
+        ServerSocketChannel channel = ServerSocketChannel.open();
+        channel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        return new CompileServer(channel, null);
+    }
+
+    public static CompileServer onUnixSocket(Path path) throws IOException {
+        Files.deleteIfExists(path);
+        SocketAddress address = UnixDomainSocketAddress.of(path);
+        ServerSocketChannel channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        channel.bind(address);
+        return new CompileServer(channel, path);
+    }
+
+    // Virtual threads when the runtime has them (JDK 21+), a cached pool otherwise
+    private static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor")
+                .invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "aa-compile-worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    // Runs the lexer hot paths until the JIT has compiled them
+    public static void warmUp(int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            new LexicalAnalyzer(WARM_UP_SOURCE, new ErrorHandler(), RECOVERY).tokenize();
+        }
+    }
+
+    public SocketAddress getAddress() throws IOException {
+        return server.getLocalAddress();
+    }
+
+    public void serve() throws IOException {
+        while (running) {
+            SocketChannel client;
+            try {
+                client = server.accept();
+            } catch (IOException e) {
+                if (!running) {
+                    return;
+                }
+                throw e;
+            }
+            executor.execute(() -> handleConnection(client));
+        }
+    }
+
+    private void handleConnection(SocketChannel client) {
+        try (SocketChannel channel = client;
+             BufferedReader in = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(Channels.newWriter(channel, StandardCharsets.UTF_8))) {
+            StringBuilder line = new StringBuilder();
+            while (readLine(in, line) >= 0) {
+                String command = line.toString().trim();
+                if (command.equals("QUIT")) {
+                    return;
+                } else if (command.equals("PING")) {
+                    out.println("PONG");
+                } else if (command.equals("LEX") || command.startsWith("LEX ")) {
+                    String name = command.length() > 4 ? command.substring(4).trim() : "<request>";
+                    handleLex(name, readRequest(in), out);
+                } else if (command.startsWith("MATCH ")) {
+                    handleMatch(command.substring(6), readRequest(in), out);
+                } else {
+                    ErrorHandler errorHandler = new ErrorHandler();
+                    errorHandler.addError(0, 0, "Unknown command: " + command);
+                    writeDiagnostics(errorHandler, out);
+                    out.println("END");
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            System.err.println("Connection error: " + e.getMessage());
+        }
+    }
+
+    // Reads one line, without its terminator, keeping at most MAX_REQUEST_CHARS of it.
+    // Returns the line's full length, or -1 at the end of the stream.
+    private static long readLine(BufferedReader in, StringBuilder line) throws IOException {
+        line.setLength(0);
+        long length = 0;
+        int c;
+        while ((c = in.read()) != -1 && c != '\n') {
+            if (length++ < MAX_REQUEST_CHARS) {
+                line.append((char) c);
+            }
+        }
+        if (c == -1 && length == 0) {
+            return -1;
+        }
+        if (line.length() > 0 && line.charAt(line.length() - 1) == '\r') {
+            line.setLength(line.length() - 1);
+        }
+        return length;
+    }
+
+    // Lines up to END, or null if the request outgrew the limits; the rest of an
+    // oversized request is still read, so the next command starts in the right place
+    private static List<String> readRequest(BufferedReader in) throws IOException {
+        List<String> lines = new ArrayList<>();
+        StringBuilder line = new StringBuilder();
+        long chars = 0;
+        boolean tooLarge = false;
+        long length;
+        while ((length = readLine(in, line)) >= 0 && !line.toString().equals("END")) {
+            chars += length + 1;
+            if (!tooLarge && (chars > MAX_REQUEST_CHARS || lines.size() == MAX_REQUEST_LINES)) {
+                tooLarge = true;
+                lines = new ArrayList<>();
+            }
+            if (!tooLarge) {
+                lines.add(line.toString());
+            }
+        }
+        return tooLarge ? null : lines;
+    }
+
+    // False, after replying with an error, if the request was too large
+    private static boolean checkSize(List<String> request, PrintWriter out) {
+        if (request != null) {
+            return true;
+        }
+        ErrorHandler errorHandler = new ErrorHandler();
+        errorHandler.addError(0, 0, "Request exceeds " + MAX_REQUEST_LINES + " lines or "
+                                    + MAX_REQUEST_CHARS + " characters");
+        writeDiagnostics(errorHandler, out);
+        out.println("END");
+        return false;
+    }
+
+    private static void handleLex(String name, List<String> lines, PrintWriter out) {
+        if (!checkSize(lines, out)) {
+            return;
+        }
+        StringBuilder source = new StringBuilder();
+        for (String line : lines) {
+            source.append(line).append('\n');
+        }
+        ErrorHandler errorHandler = new ErrorHandler();
+        LexicalAnalyzer lexer = new LexicalAnalyzer(source.toString(), errorHandler, RECOVERY);
+        lexer.setSourceName(name);
+        List<Token> tokens = lexer.tokenize();
+
+        for (Token token : tokens) {
+            out.println("TOKEN " + escape(token.toString()));
+        }
+        writeDiagnostics(errorHandler, out);
+        out.println("END");
+    }
+
+    private void handleMatch(String pattern, List<String> inputs, PrintWriter out) {
+        if (!checkSize(inputs, out)) {
+            return;
+        }
+        CompiledPattern compiled = compiledPattern(pattern);
+        if (compiled.matcher != null) {
+            for (String input : inputs) {
+                out.println(compiled.matcher.matches(input) ? "ACCEPT" : "REJECT");
+            }
+        }
+        for (String diagnostic : compiled.diagnostics) {
+            out.println(diagnostic);
+        }
+        out.println("END");
+    }
+
+    // Compiled outside the lock: automata number their states per instance, so
+    // requests can build them concurrently, and a slow pattern does not block others
+    private CompiledPattern compiledPattern(String pattern) {
+        synchronized (patterns) {
+            CompiledPattern cached = patterns.get(pattern);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        ErrorHandler errorHandler = new ErrorHandler();
+        RegularExpression regex = new RegularExpression(pattern, errorHandler, CompileLimits.DEFAULT);
+        DfaMatcher matcher = errorHandler.hasErrors() ? null : DfaBatchTester.matcherFor(regex, errorHandler);
+        List<String> diagnostics = new ArrayList<>();
+        for (Object error : errorHandler.getErrors()) {
+            diagnostics.add(escape(error.toString()));
+        }
+        for (String warning : errorHandler.getWarnings()) {
+            diagnostics.add(escape(warning));
+        }
+        CompiledPattern compiled = new CompiledPattern(matcher, List.copyOf(diagnostics));
+        synchronized (patterns) {
+            patterns.put(pattern, compiled);
+        }
+        return compiled;
+    }
+
+    int cachedPatternCount() {
+        synchronized (patterns) {
+            return patterns.size();
+        }
+    }
+
+    private static void writeDiagnostics(ErrorHandler errorHandler, PrintWriter out) {
+        for (Object error : errorHandler.getErrors()) {
+            out.println(escape(error.toString()));
+        }
+        for (String warning : errorHandler.getWarnings()) {
+            out.println(escape(warning));
+        }
+    }
+
+    // Token values (comments, strings) may span lines; a reply must stay on one line
+    static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        server.close();
+        executor.shutdown();
+        if (socketPath != null) {
+            Files.deleteIfExists(socketPath);
+        }
+    }
+
+    // Usage: --port <n> | --socket <path>
+    public static void main(String[] args) throws IOException {
+        CompileServer server;
+        if (args.length == 2 && args[0].equals("--socket")) {
+            server = onUnixSocket(Paths.get(args[1]));
+        } else if (args.length == 2 && args[0].equals("--port")) {
+            server = onPort(Integer.parseInt(args[1]));
+        } else {
+            System.err.println("Usage: CompileServer --port <n> | --socket <path>");
+            return;
+        }
+
+        warmUp(20_000);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException e) {
+                // Ignore
+            }
+        }));
+        System.out.println("AA compile server listening on " + server.getAddress());
+        server.serve();
+    }
+}
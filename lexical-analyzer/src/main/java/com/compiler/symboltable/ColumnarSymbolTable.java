@@ -0,0 +1,313 @@
+package com.compiler.symboltable;
+
+import com.compiler.error.ErrorHandler;
+import com.compiler.lexer.TokenType;
+import java.util.*;
+
+/**
+ * Symbol table that stores one row per declaration across parallel primitive
+ * arrays instead of one {@link Symbol} object each. Symbols are identified by
+ * dense int IDs and names by interned int IDs; lookup by name ID is a single
+ * array read. Scoping rules and error messages match {@link SymbolTable}.
+ * <p>
+ * Symbol IDs are never reused. exitScope unlinks the closed scope's rows from
+ * lookup and marks them closed, but they stay in the columns, so an ID taken
+ * while its scope was open still reads back the same declaration afterwards.
+ */
+public class ColumnarSymbolTable {
+    public static final int NO_SYMBOL = -1;
+
+    private static final TokenType[] TYPES = TokenType.values();
+    private static final byte GLOBAL_FLAG = 1;
+    private static final byte CONSTANT_FLAG = 2;
+    private static final byte CLOSED_FLAG = 4;
+
+    private final ErrorHandler errorHandler;
+    private final NameTable names;
+
+    // Symbol columns, indexed by symbol ID
+    private byte[] typeOrdinals;
+    private byte[] flags;
+    private int[] scopeIds;
+    private int[] lines;
+    private int[] columns;
+    private int[] nameIds;
+    private int[] shadowed;
+    private int[] previousInScope;
+    private int symbolCount;
+    private int liveCount;
+
+    // Innermost visible symbol per name ID
+    private int[] headByName;
+
+    // Scope stack: ID of each open scope and the newest symbol it owns, which
+    // heads a chain through previousInScope
+    private int[] scopeIdStack;
+    private int[] scopeHeads;
+    private int scopeDepth;
+
+    // Name ID of every scope ever opened, indexed by scope ID
+    private int[] scopeNameIds;
+    private int nextScopeId;
+
+    public ColumnarSymbolTable(ErrorHandler errorHandler) {
+        this(errorHandler, 64);
+    }
+
+    public ColumnarSymbolTable(ErrorHandler errorHandler, int expectedSymbols) {
+        int capacity = Math.max(16, expectedSymbols);
+        this.errorHandler = errorHandler;
+        this.names = new NameTable(capacity);
+        this.typeOrdinals = new byte[capacity];
+        this.flags = new byte[capacity];
+        this.scopeIds = new int[capacity];
+        this.lines = new int[capacity];
+        this.columns = new int[capacity];
+        this.nameIds = new int[capacity];
+        this.shadowed = new int[capacity];
+        this.previousInScope = new int[capacity];
+        this.headByName = new int[capacity];
+        Arrays.fill(headByName, NO_SYMBOL);
+        this.scopeIdStack = new int[8];
+        this.scopeHeads = new int[8];
+        this.scopeNameIds = new int[8];
+        enterScope("global");
+    }
+
+    public int internName(String name) {
+        int id = names.intern(name);
+        if (id >= headByName.length) {
+            int oldLength = headByName.length;
+            headByName = Arrays.copyOf(headByName, Math.max(id + 1, oldLength * 2));
+            Arrays.fill(headByName, oldLength, headByName.length, NO_SYMBOL);
+        }
+        return id;
+    }
+
+    public String getNameById(int nameId) {
+        return names.get(nameId);
+    }
+
+    public void enterScope(String scopeName) {
+        if (scopeDepth == scopeIdStack.length) {
+            scopeIdStack = Arrays.copyOf(scopeIdStack, scopeDepth * 2);
+            scopeHeads = Arrays.copyOf(scopeHeads, scopeDepth * 2);
+        }
+        if (nextScopeId == scopeNameIds.length) {
+            scopeNameIds = Arrays.copyOf(scopeNameIds, nextScopeId * 2);
+        }
+        int scopeId = nextScopeId++;
+        scopeNameIds[scopeId] = internName(scopeName);
+        scopeIdStack[scopeDepth] = scopeId;
+        scopeHeads[scopeDepth] = NO_SYMBOL;
+        scopeDepth++;
+    }
+
+    public void exitScope() {
+        if (scopeDepth == 0) {
+            return;
+        }
+        scopeDepth--;
+        // Rows stay in place so their IDs remain valid; they only leave lookup
+        for (int id = scopeHeads[scopeDepth]; id != NO_SYMBOL; id = previousInScope[id]) {
+            headByName[nameIds[id]] = shadowed[id];
+            flags[id] |= CLOSED_FLAG;
+            liveCount--;
+        }
+    }
+
+    public int insert(String name, TokenType type, boolean isGlobal, boolean isConstant, int line, int column) {
+        return insert(internName(name), type, isGlobal, isConstant, line, column);
+    }
+
+    public int insert(int nameId, TokenType type, boolean isGlobal, boolean isConstant, int line, int column) {
+        if (!isValidVariableType(type)) {
+            errorHandler.addError(line, column, "Invalid type for variable declaration: " + type);
+            return NO_SYMBOL;
+        }
+
+        int existing = headByName[nameId];
+        if (existing != NO_SYMBOL && scopeIds[existing] == currentScopeId()) {
+            errorHandler.addError(line, column, "Symbol '" + names.get(nameId) + "' already declared in current scope");
+            return NO_SYMBOL;
+        }
+
+        if (isGlobal && !isGlobalScope()) {
+            errorHandler.addError(line, column, "Global variables can only be declared in global scope");
+            return NO_SYMBOL;
+        }
+
+        if (symbolCount == typeOrdinals.length) {
+            grow();
+        }
+        int id = symbolCount++;
+        typeOrdinals[id] = (byte) type.ordinal();
+        flags[id] = (byte) ((isGlobal ? GLOBAL_FLAG : 0) | (isConstant ? CONSTANT_FLAG : 0));
+        scopeIds[id] = currentScopeId();
+        lines[id] = line;
+        columns[id] = column;
+        nameIds[id] = nameId;
+        shadowed[id] = existing;
+        headByName[nameId] = id;
+        previousInScope[id] = scopeHeads[scopeDepth - 1];
+        scopeHeads[scopeDepth - 1] = id;
+        liveCount++;
+        return id;
+    }
+
+    private void grow() {
+        int capacity = typeOrdinals.length * 2;
+        typeOrdinals = Arrays.copyOf(typeOrdinals, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        scopeIds = Arrays.copyOf(scopeIds, capacity);
+        lines = Arrays.copyOf(lines, capacity);
+        columns = Arrays.copyOf(columns, capacity);
+        nameIds = Arrays.copyOf(nameIds, capacity);
+        shadowed = Arrays.copyOf(shadowed, capacity);
+        previousInScope = Arrays.copyOf(previousInScope, capacity);
+    }
+
+    public int lookup(int nameId) {
+        return nameId < headByName.length ? headByName[nameId] : NO_SYMBOL;
+    }
+
+    public int lookup(String name) {
+        int nameId = names.find(name);
+        return nameId < 0 ? NO_SYMBOL : lookup(nameId);
+    }
+
+    // Column accessors by symbol ID
+    public int getNameId(int id) { return nameIds[id]; }
+    public String getName(int id) { return names.get(nameIds[id]); }
+    public TokenType getType(int id) { return TYPES[typeOrdinals[id]]; }
+    public boolean isGlobal(int id) { return (flags[id] & GLOBAL_FLAG) != 0; }
+    public boolean isConstant(int id) { return (flags[id] & CONSTANT_FLAG) != 0; }
+    public int getScopeId(int id) { return scopeIds[id]; }
+    public int getLine(int id) { return lines[id]; }
+    public int getColumn(int id) { return columns[id]; }
+    public String getScope(int id) { return names.get(scopeNameIds[scopeIds[id]]); }
+
+    // False once the scope that declared the symbol has been exited
+    public boolean isOpen(int id) { return (flags[id] & CLOSED_FLAG) == 0; }
+
+    // Materializes a Symbol view of a row for code that expects objects
+    public Symbol toSymbol(int id) {
+        return new Symbol(getName(id), getType(id), isGlobal(id), isConstant(id),
+                          getScope(id), getLine(id), getColumn(id));
+    }
+
+    public String getCurrentScope() {
+        return names.get(scopeNameIds[currentScopeId()]);
+    }
+
+    private int currentScopeId() {
+        return scopeIdStack[scopeDepth - 1];
+    }
+
+    public int getCurrentScopeLevel() {
+        return scopeDepth;
+    }
+
+    public boolean isGlobalScope() {
+        return scopeDepth == 1 && "global".equals(getCurrentScope());
+    }
+
+    public boolean isValidVariableType(TokenType type) {
+        return type == TokenType.INT ||
+               type == TokenType.DEC ||
+               type == TokenType.BOOL ||
+               type == TokenType.CHAR ||
+               type == TokenType.STR;
+    }
+
+    // Symbols of open scopes, as in SymbolTable; closed rows are not counted
+    public int size() {
+        return liveCount;
+    }
+
+    public List<Symbol> getAllSymbols() {
+        List<Symbol> allSymbols = new ArrayList<>(liveCount);
+        for (int id = 0; id < symbolCount; id++) {
+            if (isOpen(id)) {
+                allSymbols.add(toSymbol(id));
+            }
+        }
+        return allSymbols;
+    }
+
+    public void printSymbols() {
+        System.out.println("\nSymbol Table Contents:");
+        System.out.println("---------------------");
+        for (int id = 0; id < symbolCount; id++) {
+            if (isOpen(id)) {
+                System.out.println("#" + id + " " + toSymbol(id));
+            }
+        }
+        System.out.println("---------------------\n");
+    }
+
+    // Open-addressing string interner handing out dense IDs
+    private static final class NameTable {
+        private String[] byId;
+        private int[] slots;
+        private int count;
+
+        NameTable(int expected) {
+            this.byId = new String[expected];
+            this.slots = new int[Integer.highestOneBit(expected * 2 - 1) << 1];
+            Arrays.fill(slots, -1);
+        }
+
+        int find(String name) {
+            int mask = slots.length - 1;
+            for (int slot = spread(name.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+                int id = slots[slot];
+                if (id < 0 || byId[id].equals(name)) {
+                    return id;
+                }
+            }
+        }
+
+        int intern(String name) {
+            int mask = slots.length - 1;
+            int slot = spread(name.hashCode()) & mask;
+            for (; slots[slot] >= 0; slot = (slot + 1) & mask) {
+                if (byId[slots[slot]].equals(name)) {
+                    return slots[slot];
+                }
+            }
+
+            if (count == byId.length) {
+                byId = Arrays.copyOf(byId, count * 2);
+            }
+            int id = count++;
+            byId[id] = name;
+            slots[slot] = id;
+            if (count * 2 > slots.length) {
+                rehash();
+            }
+            return id;
+        }
+
+        String get(int id) {
+            return byId[id];
+        }
+
+        private void rehash() {
+            slots = new int[slots.length * 2];
+            Arrays.fill(slots, -1);
+            int mask = slots.length - 1;
+            for (int id = 0; id < count; id++) {
+                int slot = spread(byId[id].hashCode()) & mask;
+                while (slots[slot] >= 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = id;
+            }
+        }
+
+        private static int spread(int h) {
+            return h ^ (h >>> 16);
+        }
+    }
+}
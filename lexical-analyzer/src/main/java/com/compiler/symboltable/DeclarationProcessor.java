@@ -0,0 +1,58 @@
+package com.compiler.symboltable;
+
+import com.compiler.lexer.Token;
+import com.compiler.lexer.TokenType;
+
+// Recognizes declarations ([@] type identifier) in a token stream, one token at a time,
+// and inserts them into the symbol table.
+public class DeclarationProcessor {
+    private final SymbolTable symbolTable;
+    private boolean isGlobal = false;
+    private TokenType currentType = null;
+    private int declarations = 0;
+
+    public DeclarationProcessor(SymbolTable symbolTable) {
+        this.symbolTable = symbolTable;
+    }
+
+    public void accept(Token token) {
+        TokenType type = token.getType();
+
+        // A lexical error in the middle of a declaration abandons it, so a later
+        // identifier is not declared with a type that belonged to the broken one
+        if (type == TokenType.INVALID) {
+            currentType = null;
+            isGlobal = false;
+            return;
+        }
+
+        if (type == TokenType.GLOBAL) {
+            isGlobal = true;
+            return;
+        }
+        
+        // Check for type declarations
+        if (type == TokenType.INT || 
+            type == TokenType.DEC || 
+            type == TokenType.BOOL || 
+            type == TokenType.CHAR || 
+            type == TokenType.STR) {
+            currentType = type;
+            return;
+        }
+        
+        // Handle identifier declarations
+        if (currentType != null && type == TokenType.IDENTIFIER) {
+            if (symbolTable.insert(token.getValue(), currentType, isGlobal, false,
+                                   token.getLine(), token.getColumn())) {
+                declarations++;
+            }
+            currentType = null;
+            isGlobal = false;
+        }
+    }
+
+    public int getDeclarationCount() {
+        return declarations;
+    }
+}
@@ -0,0 +1,306 @@
+package com.compiler.symboltable;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+// Immutable hash array mapped trie. put() and remove() copy only the path from
+// the root to the changed leaf, so every older version stays valid and shares the rest.
+final class PersistentHashMap<K, V> {
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private final Node root;
+    private final int size;
+
+    private PersistentHashMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(K key) {
+        return root == null ? null : (V) root.find(key, hash(key), 0);
+    }
+
+    PersistentHashMap<K, V> put(K key, V value) {
+        boolean[] added = new boolean[1];
+        Node start = root == null ? BitmapNode.EMPTY : root;
+        Node newRoot = start.put(key, hash(key), 0, value, added);
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentHashMap<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    PersistentHashMap<K, V> remove(K key) {
+        if (root == null) {
+            return this;
+        }
+        boolean[] removed = new boolean[1];
+        Node newRoot = root.remove(key, hash(key), 0, removed);
+        if (!removed[0]) {
+            return this;
+        }
+        return newRoot == null ? empty() : new PersistentHashMap<>(newRoot, size - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    void forEach(BiConsumer<? super K, ? super V> action) {
+        if (root != null) {
+            root.forEach((BiConsumer<Object, Object>) action);
+        }
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private interface Node {
+        Object find(Object key, int hash, int shift);
+
+        Node put(Object key, int hash, int shift, Object value, boolean[] added);
+
+        // The node without key, or null once it is empty
+        Node remove(Object key, int hash, int shift, boolean[] removed);
+
+        // The key and value if this node holds exactly one entry, else null
+        Object[] singleEntry();
+
+        void forEach(BiConsumer<Object, Object> action);
+    }
+
+    // Entries are stored as key/value pairs; a null key means the slot holds a child node
+    private static final class BitmapNode implements Node {
+        static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        private final int bitmap;
+        private final Object[] array;
+
+        BitmapNode(int bitmap, Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        public Object find(Object key, int hash, int shift) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            int i = 2 * index(bit);
+            Object keyOrNull = array[i];
+            Object valueOrNode = array[i + 1];
+            if (keyOrNull == null) {
+                return ((Node) valueOrNode).find(key, hash, shift + BITS);
+            }
+            return key.equals(keyOrNull) ? valueOrNode : null;
+        }
+
+        @Override
+        public Node put(Object key, int hash, int shift, Object value, boolean[] added) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            int i = 2 * index(bit);
+
+            if ((bitmap & bit) == 0) {
+                Object[] newArray = new Object[array.length + 2];
+                System.arraycopy(array, 0, newArray, 0, i);
+                newArray[i] = key;
+                newArray[i + 1] = value;
+                System.arraycopy(array, i, newArray, i + 2, array.length - i);
+                added[0] = true;
+                return new BitmapNode(bitmap | bit, newArray);
+            }
+
+            Object keyOrNull = array[i];
+            Object valueOrNode = array[i + 1];
+            if (keyOrNull == null) {
+                Node child = ((Node) valueOrNode).put(key, hash, shift + BITS, value, added);
+                return child == valueOrNode ? this : with(i + 1, child);
+            }
+            if (key.equals(keyOrNull)) {
+                return valueOrNode == value ? this : with(i + 1, value);
+            }
+
+            added[0] = true;
+            Node child = split(keyOrNull, valueOrNode, key, hash, value, shift + BITS);
+            Object[] newArray = array.clone();
+            newArray[i] = null;
+            newArray[i + 1] = child;
+            return new BitmapNode(bitmap, newArray);
+        }
+
+        private BitmapNode with(int i, Object slot) {
+            Object[] newArray = array.clone();
+            newArray[i] = slot;
+            return new BitmapNode(bitmap, newArray);
+        }
+
+        @Override
+        public Node remove(Object key, int hash, int shift, boolean[] removed) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int i = 2 * index(bit);
+            Object keyOrNull = array[i];
+            Object valueOrNode = array[i + 1];
+            if (keyOrNull == null) {
+                Node child = ((Node) valueOrNode).remove(key, hash, shift + BITS, removed);
+                if (child == valueOrNode) {
+                    return this;
+                }
+                if (child == null) {
+                    return without(bit, i);
+                }
+                // A child left with one entry is pulled up into this slot
+                Object[] entry = child.singleEntry();
+                if (entry == null) {
+                    return with(i + 1, child);
+                }
+                Object[] newArray = array.clone();
+                newArray[i] = entry[0];
+                newArray[i + 1] = entry[1];
+                return new BitmapNode(bitmap, newArray);
+            }
+            if (!key.equals(keyOrNull)) {
+                return this;
+            }
+            removed[0] = true;
+            return without(bit, i);
+        }
+
+        private BitmapNode without(int bit, int i) {
+            if (bitmap == bit) {
+                return null;
+            }
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, i);
+            System.arraycopy(array, i + 2, newArray, i, array.length - i - 2);
+            return new BitmapNode(bitmap & ~bit, newArray);
+        }
+
+        @Override
+        public Object[] singleEntry() {
+            return array.length == 2 && array[0] != null ? array : null;
+        }
+
+        private static Node split(Object key1, Object value1, Object key2, int hash2, Object value2, int shift) {
+            int hash1 = hash(key1);
+            if (hash1 == hash2 || shift >= 32) {
+                return new CollisionNode(hash1, new Object[] {key1, value1, key2, value2});
+            }
+            boolean[] ignored = new boolean[1];
+            return EMPTY.put(key1, hash1, shift, value1, ignored)
+                        .put(key2, hash2, shift, value2, ignored);
+        }
+
+        @Override
+        public void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (array[i] == null) {
+                    ((Node) array[i + 1]).forEach(action);
+                } else {
+                    action.accept(array[i], array[i + 1]);
+                }
+            }
+        }
+    }
+
+    // Keys whose full 32-bit hashes are equal
+    private static final class CollisionNode implements Node {
+        private final int hash;
+        private final Object[] array;
+
+        CollisionNode(int hash, Object[] array) {
+            this.hash = hash;
+            this.array = array;
+        }
+
+        @Override
+        public Object find(Object key, int hash, int shift) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return array[i + 1];
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public Node put(Object key, int hash, int shift, Object value, boolean[] added) {
+            if (hash != this.hash) {
+                // Push this node one level down next to the new key
+                BitmapNode wrapper = new BitmapNode(1 << ((this.hash >>> shift) & MASK),
+                                                    new Object[] {null, this});
+                return wrapper.put(key, hash, shift, value, added);
+            }
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    if (Objects.equals(array[i + 1], value)) {
+                        return this;
+                    }
+                    Object[] newArray = array.clone();
+                    newArray[i + 1] = value;
+                    return new CollisionNode(hash, newArray);
+                }
+            }
+            Object[] newArray = Arrays.copyOf(array, array.length + 2);
+            newArray[array.length] = key;
+            newArray[array.length + 1] = value;
+            added[0] = true;
+            return new CollisionNode(hash, newArray);
+        }
+
+        @Override
+        public Node remove(Object key, int hash, int shift, boolean[] removed) {
+            if (hash != this.hash) {
+                return this;
+            }
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    removed[0] = true;
+                    if (array.length == 2) {
+                        return null;
+                    }
+                    Object[] newArray = new Object[array.length - 2];
+                    System.arraycopy(array, 0, newArray, 0, i);
+                    System.arraycopy(array, i + 2, newArray, i, array.length - i - 2);
+                    return new CollisionNode(hash, newArray);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        public Object[] singleEntry() {
+            return array.length == 2 ? array : null;
+        }
+
+        @Override
+        public void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                action.accept(array[i], array[i + 1]);
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.compiler.symboltable;
+
+import com.compiler.error.ErrorHandler;
+import com.compiler.lexer.TokenType;
+import java.util.*;
+
+/**
+ * Immutable counterpart of {@link SymbolTable}. Every operation returns a new
+ * table and leaves the receiver untouched, so any instance can be kept as a
+ * snapshot of the environment at that program point. enterScope and
+ * exitScope are O(1) (exitScope also re-applies value updates made to outer
+ * symbols); insert copies only O(log32 n) trie nodes.
+ */
+public final class PersistentSymbolTable {
+    private final PersistentHashMap<String, Symbol> symbols;
+    private final PersistentHashMap<String, Symbol> currentScopeSymbols;
+    private final PersistentHashMap<String, Symbol> outerUpdates;
+    private final String scope;
+    private final int scopeLevel;
+    private final PersistentSymbolTable enclosing;
+    private final ErrorHandler errorHandler;
+
+    private PersistentSymbolTable(PersistentHashMap<String, Symbol> symbols,
+                                  PersistentHashMap<String, Symbol> currentScopeSymbols,
+                                  PersistentHashMap<String, Symbol> outerUpdates,
+                                  String scope, int scopeLevel,
+                                  PersistentSymbolTable enclosing, ErrorHandler errorHandler) {
+        this.symbols = symbols;
+        this.currentScopeSymbols = currentScopeSymbols;
+        this.outerUpdates = outerUpdates;
+        this.scope = scope;
+        this.scopeLevel = scopeLevel;
+        this.enclosing = enclosing;
+        this.errorHandler = errorHandler;
+    }
+
+    public static PersistentSymbolTable create(ErrorHandler errorHandler) {
+        return new PersistentSymbolTable(PersistentHashMap.empty(), PersistentHashMap.empty(),
+                                         PersistentHashMap.empty(), "global", 1, null, errorHandler);
+    }
+
+    public PersistentSymbolTable enterScope(String scopeName) {
+        return new PersistentSymbolTable(symbols, PersistentHashMap.empty(), PersistentHashMap.empty(),
+                                         scopeName, scopeLevel + 1, this, errorHandler);
+    }
+
+    public PersistentSymbolTable exitScope() {
+        if (enclosing == null) {
+            return this;
+        }
+        // The enclosing snapshot already holds the bindings from before this scope;
+        // only values assigned to its symbols from in here need carrying back
+        PersistentSymbolTable[] result = {enclosing};
+        outerUpdates.forEach((name, symbol) -> result[0] = result[0].rebind(symbol));
+        return result[0];
+    }
+
+    public PersistentSymbolTable insert(String name, TokenType type, boolean isGlobal, boolean isConstant,
+                                        int line, int column) {
+        if (!isValidVariableType(type)) {
+            errorHandler.addError(line, column, "Invalid type for variable declaration: " + type);
+            return this;
+        }
+
+        if (currentScopeSymbols.get(name) != null) {
+            errorHandler.addError(line, column, "Symbol '" + name + "' already declared in current scope");
+            return this;
+        }
+
+        if (isGlobal && !isGlobalScope()) {
+            errorHandler.addError(line, column, "Global variables can only be declared in global scope");
+            return this;
+        }
+
+        Symbol symbol = new Symbol(name, type, isGlobal, isConstant, scope, line, column);
+        return new PersistentSymbolTable(symbols.put(name, symbol), currentScopeSymbols.put(name, symbol),
+                                         outerUpdates, scope, scopeLevel, enclosing, errorHandler);
+    }
+
+    public Symbol lookup(String name) {
+        return symbols.get(name);
+    }
+
+    // Symbols are shared between snapshots, so an update binds a fresh copy
+    public PersistentSymbolTable updateValue(String name, Object value, int line, int column) {
+        Symbol symbol = lookup(name);
+        if (symbol == null) {
+            errorHandler.addError(line, column, "Symbol '" + name + "' not declared");
+            return this;
+        }
+
+        Symbol updated = symbol.copy();
+        try {
+            updated.setValue(value);
+        } catch (IllegalStateException e) {
+            errorHandler.addError(line, column, e.getMessage());
+            return this;
+        }
+        return rebind(updated);
+    }
+
+    // Replaces an existing binding, recording it for exitScope if it belongs to an outer scope
+    private PersistentSymbolTable rebind(Symbol symbol) {
+        String name = symbol.getName();
+        if (currentScopeSymbols.get(name) != null) {
+            return new PersistentSymbolTable(symbols.put(name, symbol), currentScopeSymbols.put(name, symbol),
+                                             outerUpdates, scope, scopeLevel, enclosing, errorHandler);
+        }
+        return new PersistentSymbolTable(symbols.put(name, symbol), currentScopeSymbols,
+                                         outerUpdates.put(name, symbol), scope, scopeLevel, enclosing, errorHandler);
+    }
+
+    public String getCurrentScope() {
+        return scope;
+    }
+
+    public int getCurrentScopeLevel() {
+        return scopeLevel;
+    }
+
+    public boolean isGlobalScope() {
+        return scopeLevel == 1 && "global".equals(scope);
+    }
+
+    public boolean isValidVariableType(TokenType type) {
+        return type == TokenType.INT ||
+               type == TokenType.DEC ||
+               type == TokenType.BOOL ||
+               type == TokenType.CHAR ||
+               type == TokenType.STR;
+    }
+
+    public int size() {
+        return symbols.size();
+    }
+
+    // Visible symbols only; shadowed outer declarations are not listed
+    public List<Symbol> getAllSymbols() {
+        List<Symbol> allSymbols = new ArrayList<>(symbols.size());
+        symbols.forEach((name, symbol) -> allSymbols.add(symbol));
+        return allSymbols;
+    }
+
+    public void printSymbols() {
+        System.out.println("\nSymbol Table Contents:");
+        System.out.println("---------------------");
+        symbols.forEach((name, symbol) -> {
+            System.out.println("Identifier: " + name);
+            System.out.println("  " + symbol);
+        });
+        System.out.println("---------------------\n");
+    }
+}
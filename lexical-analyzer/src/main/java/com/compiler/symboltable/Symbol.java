@@ -3,12 +3,25 @@ package com.compiler.symboltable;
 import com.compiler.lexer.TokenType;
 
 public class Symbol {
+    // Tags for the value slot; primitives live unboxed in valueBits
+    private static final byte NO_VALUE = 0;
+    private static final byte INT_VALUE = 1;
+    private static final byte DEC_VALUE = 2;
+    private static final byte BOOL_VALUE = 3;
+    private static final byte CHAR_VALUE = 4;
+    private static final byte STR_VALUE = 5;
+    private static final TokenType[] TAG_TYPES = {
+        null, TokenType.INT, TokenType.DEC, TokenType.BOOL, TokenType.CHAR, TokenType.STR
+    };
+
     private final String name;
     private final TokenType type;
     private final boolean isGlobal;
     private final boolean isConstant;
     private final String scope;
-    private Object value;
+    private byte valueTag = NO_VALUE;
+    private long valueBits;
+    private String stringValue;
     private final int line;
     private final int column;
 
@@ -28,41 +41,146 @@ public class Symbol {
     public TokenType getType() { return type; }
     public boolean isGlobal() { return isGlobal; }
     public boolean isConstant() { return isConstant; }
-    public Object getValue() { return value; }
+    public boolean hasValue() { return valueTag != NO_VALUE; }
     public int getLine() { return line; }
     public int getColumn() { return column; }
     public String getScope() { return scope; }
 
+    // Boxes on demand; hot paths should use the typed getters below
+    public Object getValue() {
+        return switch (valueTag) {
+            case INT_VALUE -> (int) valueBits;
+            case DEC_VALUE -> Double.longBitsToDouble(valueBits);
+            case BOOL_VALUE -> valueBits != 0;
+            case CHAR_VALUE -> (char) valueBits;
+            case STR_VALUE -> stringValue;
+            default -> null;
+        };
+    }
+
     // Setter for value with type checking
     public void setValue(Object value) throws IllegalStateException {
-        if (isConstant && this.value != null) {
-            throw new IllegalStateException("Cannot modify a constant value");
+        checkWritable();
+
+        if (value == null) {
+            valueTag = NO_VALUE;
+            valueBits = 0;
+            stringValue = null;
+        } else if (value instanceof Integer intValue) {
+            setInt(intValue);
+        } else if (value instanceof Double decValue) {
+            setDec(decValue);
+        } else if (value instanceof Boolean boolValue) {
+            setBool(boolValue);
+        } else if (value instanceof Character charValue) {
+            setChar(charValue);
+        } else if (value instanceof String strValue) {
+            setStr(strValue);
+        } else {
+            throw typeMismatch(value.getClass().getSimpleName());
+        }
+    }
+
+    // Typed setters: same constness and type rules as setValue, without boxing
+    public void setInt(int value) {
+        store(TokenType.INT, "Integer", INT_VALUE, value);
+    }
+
+    public void setDec(double value) {
+        store(TokenType.DEC, "Double", DEC_VALUE, Double.doubleToRawLongBits(value));
+    }
+
+    public void setBool(boolean value) {
+        store(TokenType.BOOL, "Boolean", BOOL_VALUE, value ? 1 : 0);
+    }
+
+    public void setChar(char value) {
+        store(TokenType.CHAR, "Character", CHAR_VALUE, value);
+    }
+
+    public void setStr(String value) {
+        if (value == null) {
+            setValue(null);
+            return;
         }
-        
-        // Type checking
-        if (value != null) {
-            boolean isValid = switch(type) {
-                case INT -> value instanceof Integer;
-                case DEC -> value instanceof Double;
-                case BOOL -> value instanceof Boolean;
-                case CHAR -> value instanceof Character;
-                case STR -> value instanceof String;
-                default -> false;
-            };
-            
-            if (!isValid) {
-                throw new IllegalStateException(
-                    String.format("Type mismatch: Cannot assign %s to %s", 
-                        value.getClass().getSimpleName(), type));
-            }
+        checkWritable();
+        if (type != TokenType.STR) {
+            throw typeMismatch("String");
         }
-        
-        this.value = value;
+        stringValue = value;
+        valueTag = STR_VALUE;
+    }
+
+    // Typed getters
+    public int getInt() {
+        return (int) load(INT_VALUE);
+    }
+
+    public double getDec() {
+        return Double.longBitsToDouble(load(DEC_VALUE));
+    }
+
+    public boolean getBool() {
+        return load(BOOL_VALUE) != 0;
+    }
+
+    public char getChar() {
+        return (char) load(CHAR_VALUE);
+    }
+
+    public String getStr() {
+        if (valueTag != STR_VALUE) {
+            throw readMismatch(STR_VALUE);
+        }
+        return stringValue;
+    }
+
+    // Copy including the current value slot, used by PersistentSymbolTable
+    Symbol copy() {
+        Symbol copy = new Symbol(name, type, isGlobal, isConstant, scope, line, column);
+        copy.valueTag = valueTag;
+        copy.valueBits = valueBits;
+        copy.stringValue = stringValue;
+        return copy;
+    }
+
+    private void store(TokenType expected, String valueKind, byte tag, long bits) {
+        checkWritable();
+        if (type != expected) {
+            throw typeMismatch(valueKind);
+        }
+        valueBits = bits;
+        valueTag = tag;
+    }
+
+    private long load(byte tag) {
+        if (valueTag != tag) {
+            throw readMismatch(tag);
+        }
+        return valueBits;
+    }
+
+    // Names the requested type and the symbol's declared type
+    private IllegalStateException readMismatch(byte tag) {
+        return new IllegalStateException(String.format(
+            "Type mismatch: Cannot read %s from symbol '%s' of type %s%s",
+            TAG_TYPES[tag], name, type, valueTag == NO_VALUE ? " (no value assigned)" : ""));
+    }
+
+    private void checkWritable() {
+        if (isConstant && valueTag != NO_VALUE) {
+            throw new IllegalStateException("Cannot modify a constant value");
+        }
+    }
+
+    private IllegalStateException typeMismatch(String valueKind) {
+        return new IllegalStateException(
+            String.format("Type mismatch: Cannot assign %s to %s", valueKind, type));
     }
 
     @Override
     public String toString() {
         return String.format("Symbol{name='%s', type=%s, global=%b, constant=%b, scope='%s', value=%s, position=(%d,%d)}", 
-            name, type, isGlobal, isConstant, scope, value, line, column);
+            name, type, isGlobal, isConstant, scope, getValue(), line, column);
     }
 }
\ No newline at end of file
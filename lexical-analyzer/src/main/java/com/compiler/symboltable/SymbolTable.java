@@ -1,19 +1,25 @@
 package com.compiler.symboltable;
 
 import com.compiler.error.ErrorHandler;
+import com.compiler.jfr.ScopeEvent;
 import com.compiler.lexer.TokenType;
 import java.util.*;
+import jdk.jfr.EventType;
 
 public class SymbolTable {
+    private static final EventType SCOPE_EVENT = EventType.getEventType(ScopeEvent.class);
+
     private final Map<String, Stack<Symbol>> symbols;
     private final ErrorHandler errorHandler;
     private final Stack<String> scopes;
+    private final Stack<ScopeEvent> scopeEvents;    // null entries for scopes entered while not recording
     private int currentScopeLevel;
 
     public SymbolTable(ErrorHandler errorHandler) {
         this.symbols = new HashMap<>();
         this.errorHandler = errorHandler;
         this.scopes = new Stack<>();
+        this.scopeEvents = new Stack<>();
         this.currentScopeLevel = 0;
         enterScope("global");
     }
@@ -21,11 +27,22 @@ public class SymbolTable {
     public void enterScope(String scopeName) {
         scopes.push(scopeName);
         currentScopeLevel++;
+
+        // Scopes are entered often, so nothing is allocated unless a recording wants the event
+        ScopeEvent event = null;
+        if (SCOPE_EVENT.isEnabled()) {
+            event = new ScopeEvent();
+            event.begin();
+            event.scope = scopeName;
+            event.depth = currentScopeLevel;
+        }
+        scopeEvents.push(event);
     }
 
     public void exitScope() {
         if (currentScopeLevel > 0) {
             String scope = scopes.pop();
+            ScopeEvent event = scopeEvents.pop();
             // Remove all symbols from current scope
             for (Iterator<Map.Entry<String, Stack<Symbol>>> it = symbols.entrySet().iterator(); it.hasNext();) {
                 Map.Entry<String, Stack<Symbol>> entry = it.next();
@@ -38,6 +55,21 @@ public class SymbolTable {
                 }
             }
             currentScopeLevel--;
+            if (event != null) {
+                event.commit();
+            }
+        }
+    }
+
+    // Commits the events of scopes that are still open, including the global scope,
+    // which is never exited. Symbols stay in place; call when the table is done with.
+    public void close() {
+        for (int i = scopeEvents.size() - 1; i >= 0; i--) {
+            ScopeEvent event = scopeEvents.get(i);
+            if (event != null) {
+                event.commit();
+                scopeEvents.set(i, null);
+            }
         }
     }
 
@@ -62,6 +94,10 @@ public class SymbolTable {
 
         Symbol symbol = new Symbol(name, type, isGlobal, isConstant, getCurrentScope(), line, column);
         symbols.computeIfAbsent(name, k -> new Stack<>()).push(symbol);
+        ScopeEvent event = scopeEvents.peek();
+        if (event != null) {
+            event.symbols++;
+        }
         return true;
     }
 
@@ -0,0 +1,79 @@
+package com.compiler.automata;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.compiler.error.ErrorHandler;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class AlphabetClassesTest {
+    // Latin-1 only, and patterns reaching past 0xFF into the 65536-entry class map
+    private static final String[] PATTERNS = {
+        "[a-z][a-z0-9]*", "int|str|[0-9]+(\\.[0-9]+)?", "(a|b)*a(a|b){3}",
+        "[α-ω]+x?", "日本|[Ā-ž]*語", "[a-zà-ÿ]+", "[Ā-Đ]b|ąc", "\uFFFF+|ā"
+    };
+    // Every pattern's symbols plus neighbours on either side of its ranges
+    private static final String ALPHABET = "`az{09.ibxΰαβωϊ"
+        + "日本語ÿĀāąĐđžſ"
+        + "ßàÿ\uFFFE\uFFFF";
+
+    @Test
+    void classTablesAcceptTheSameStringsAsPerSymbolDfas() {
+        Random random = new Random(20261019);
+        for (String pattern : PATTERNS) {
+            RegularExpression regex = new RegularExpression(pattern, new ErrorHandler());
+            DFA perSymbol = regex.getDFA();
+            DfaTable byClass = DfaTable.build(regex.getNFA(), false, CompileLimits.UNLIMITED);
+            CompiledDfa compiled = regex.compile();
+            for (int i = 0; i < 2000; i++) {
+                StringBuilder text = new StringBuilder();
+                int length = random.nextInt(8);
+                for (int j = 0; j < length; j++) {
+                    text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+                }
+                String input = text.toString();
+                boolean expected = perSymbol.accepts(input);
+                int state = byClass.run(input);
+                assertEquals(expected, state != DfaTable.DEAD && byClass.isAccepting(state),
+                             () -> pattern + " on '" + input + "'");
+                assertEquals(expected, compiled.accepts(input), () -> pattern + " on '" + input + "'");
+            }
+        }
+    }
+
+    @Test
+    void membersOfAClassShareEveryTransition() {
+        for (String pattern : PATTERNS) {
+            DFA dfa = new RegularExpression(pattern, new ErrorHandler()).getDFA();
+            AlphabetClasses classes = AlphabetClasses.of(dfa);
+            for (int cls = 1; cls < classes.classCount(); cls++) {
+                char representative = classes.representative(cls);
+                for (char member : classes.members(cls)) {
+                    assertEquals(cls, classes.classOf(member));
+                    for (State state : dfa.getStates()) {
+                        assertEquals(state.getTransitions(representative), state.getTransitions(member),
+                                     () -> pattern + ": '" + member + "' vs '" + representative + "'");
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void mapCoversTheWholeCharRangeOnlyWhenNeeded() {
+        AlphabetClasses latin = AlphabetClasses.of(
+            new RegularExpression("[a-z]+|ÿ", new ErrorHandler()).getNFA());
+        assertEquals(256, latin.classMap().length);
+        assertEquals(0, latin.classOf('Ā'));
+        assertEquals(0, latin.classOf('\uFFFF'));
+
+        AlphabetClasses wide = AlphabetClasses.of(
+            new RegularExpression("[a-z]+|\uFFFF", new ErrorHandler()).getNFA());
+        assertEquals(65536, wide.classMap().length);
+        assertNotEquals(0, wide.classOf('\uFFFF'));
+        assertEquals(wide.classOf('a'), wide.classOf('m'));
+        assertEquals(0, wide.classOf('\uFFFE'));
+        assertEquals(0, wide.classOf('A'));
+        assertEquals(27, wide.symbolCount());
+    }
+}
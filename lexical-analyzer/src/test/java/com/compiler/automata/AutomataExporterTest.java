@@ -0,0 +1,283 @@
+package com.compiler.automata;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.compiler.error.ErrorHandler;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AutomataExporterTest {
+    // A range label, accepting states, and the '-', '\' and '"' labels that need escaping
+    private static final String PATTERN = "[a-ce]\"|\\\\|-x?";
+
+    private static final String DOT =
+        "digraph DFA {\n" +
+        "  rankdir=LR;\n" +
+        "  node [shape=circle];\n" +
+        "  __start [shape=point];\n" +
+        "  __start -> q0;\n" +
+        "  q0 -> q1 [label=\"\\\\-\"];\n" +
+        "  q0 -> q2 [label=\"\\\\\\\\\"];\n" +
+        "  q0 -> q3 [label=\"a-ce\"];\n" +
+        "  q1 [shape=doublecircle];\n" +
+        "  q1 -> q4 [label=\"x\"];\n" +
+        "  q2 [shape=doublecircle];\n" +
+        "  q3 -> q5 [label=\"\\\"\"];\n" +
+        "  q4 [shape=doublecircle];\n" +
+        "  q5 [shape=doublecircle];\n" +
+        "}\n";
+
+    private static final String JSON =
+        "{\"type\":\"DFA\",\"start\":0,\"stateCount\":6,\"states\":[\n" +
+        "{\"id\":0,\"accepting\":false,\"transitions\":[{\"to\":1,\"label\":\"\\\\-\",\"ranges\":[[45,45]]},{\"to\":2,\"label\":\"\\\\\\\\\",\"ranges\":[[92,92]]},{\"to\":3,\"label\":\"a-ce\",\"ranges\":[[97,99],[101,101]]}],\"epsilon\":[]},\n" +
+        "{\"id\":1,\"accepting\":true,\"transitions\":[{\"to\":4,\"label\":\"x\",\"ranges\":[[120,120]]}],\"epsilon\":[]},\n" +
+        "{\"id\":2,\"accepting\":true,\"transitions\":[],\"epsilon\":[]},\n" +
+        "{\"id\":3,\"accepting\":false,\"transitions\":[{\"to\":5,\"label\":\"\\\"\",\"ranges\":[[34,34]]}],\"epsilon\":[]},\n" +
+        "{\"id\":4,\"accepting\":true,\"transitions\":[],\"epsilon\":[]},\n" +
+        "{\"id\":5,\"accepting\":true,\"transitions\":[],\"epsilon\":[]}\n" +
+        "]}\n";
+
+    private static DFA dfa(String pattern) {
+        return new RegularExpression(pattern, new ErrorHandler()).getDFA();
+    }
+
+    private static String write(DFA dfa, AutomataExporter.Format format) throws IOException {
+        StringWriter out = new StringWriter();
+        AutomataExporter.write(dfa, format, out);
+        return out.toString();
+    }
+
+    private static String write(NFA nfa, AutomataExporter.Format format) throws IOException {
+        StringWriter out = new StringWriter();
+        AutomataExporter.write(nfa, format, out);
+        return out.toString();
+    }
+
+    @Test
+    void dotMatchesGoldenOutput() throws IOException {
+        assertEquals(DOT, write(dfa(PATTERN), AutomataExporter.Format.DOT));
+    }
+
+    @Test
+    void jsonMatchesGoldenOutput() throws IOException {
+        assertEquals(JSON, write(dfa(PATTERN), AutomataExporter.Format.JSON));
+    }
+
+    @Test
+    void exportPicksTheFormatFromTheFileName(@TempDir Path dir) throws IOException {
+        DFA dfa = dfa(PATTERN);
+        Path json = dir.resolve("dfa.json");
+        Path dot = dir.resolve("dfa.dot");
+        AutomataExporter.export(dfa, json);
+        AutomataExporter.export(dfa, dot);
+        assertEquals(JSON, Files.readString(json));
+        assertEquals(DOT, Files.readString(dot));
+    }
+
+    @Test
+    void rangeLabelsCollapseRunsOfThreeOrMore() {
+        assertEquals("0a-z", AutomataExporter.rangeLabel("0abcdefghijklmnopqrstuvwxyz".toCharArray()));
+        assertEquals("0-9a-z", AutomataExporter.rangeLabel("0123456789abcdefghijklmnopqrstuvwxyz".toCharArray()));
+        assertEquals("abd", AutomataExporter.rangeLabel("abd".toCharArray()));
+        assertEquals("\\u0001\\t\\n\\-", AutomataExporter.rangeLabel(new char[] {'\u0001', '\t', '\n', '-'}));
+    }
+
+    @Test
+    void jsonParsesForNfasAndDfasWithControlCharacters() throws IOException {
+        String pattern = "\"[^\"\\n]*\"|[\\t\\n\\r ]+|'\\\\'";
+        NFA nfa = new RegularExpression(pattern, new ErrorHandler()).getNFA();
+        for (String json : List.of(write(dfa(pattern), AutomataExporter.Format.JSON),
+                                   write(nfa, AutomataExporter.Format.JSON))) {
+            Map<?, ?> root = (Map<?, ?>) new JsonParser(json).parse();
+            List<?> states = (List<?>) root.get("states");
+            assertEquals(((Number) root.get("stateCount")).intValue(), states.size());
+            for (Object state : states) {
+                for (Object edge : (List<?>) ((Map<?, ?>) state).get("transitions")) {
+                    assertInstanceOf(String.class, ((Map<?, ?>) edge).get("label"));
+                    assertFalse(((List<?>) ((Map<?, ?>) edge).get("ranges")).isEmpty());
+                }
+            }
+        }
+        Map<?, ?> golden = (Map<?, ?>) new JsonParser(JSON).parse();
+        Map<?, ?> start = (Map<?, ?>) ((List<?>) golden.get("states")).get(0);
+        List<Object> labels = new ArrayList<>();
+        for (Object edge : (List<?>) start.get("transitions")) {
+            labels.add(((Map<?, ?>) edge).get("label"));
+        }
+        assertEquals(List.of("\\-", "\\\\", "a-ce"), labels);
+    }
+
+    // Strict RFC 8259 parser, enough to prove the exporter's output is well formed
+    private static final class JsonParser {
+        private final String text;
+        private int pos;
+
+        JsonParser(String text) {
+            this.text = text;
+        }
+
+        Object parse() {
+            Object value = value();
+            skipWhitespace();
+            if (pos != text.length()) {
+                throw error("trailing data");
+            }
+            return value;
+        }
+
+        private Object value() {
+            skipWhitespace();
+            if (pos >= text.length()) {
+                throw error("unexpected end");
+            }
+            char c = text.charAt(pos);
+            if (c == '{') {
+                return object();
+            }
+            if (c == '[') {
+                return array();
+            }
+            if (c == '"') {
+                return string();
+            }
+            if (text.startsWith("true", pos)) {
+                pos += 4;
+                return Boolean.TRUE;
+            }
+            if (text.startsWith("false", pos)) {
+                pos += 5;
+                return Boolean.FALSE;
+            }
+            if (text.startsWith("null", pos)) {
+                pos += 4;
+                return null;
+            }
+            return number();
+        }
+
+        private Map<String, Object> object() {
+            Map<String, Object> object = new LinkedHashMap<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return object;
+            }
+            while (true) {
+                skipWhitespace();
+                if (peek() != '"') {
+                    throw error("expected a key");
+                }
+                String key = string();
+                skipWhitespace();
+                expect(':');
+                object.put(key, value());
+                skipWhitespace();
+                if (peek() == ',') {
+                    pos++;
+                } else {
+                    expect('}');
+                    return object;
+                }
+            }
+        }
+
+        private List<Object> array() {
+            List<Object> array = new ArrayList<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == ']') {
+                pos++;
+                return array;
+            }
+            while (true) {
+                array.add(value());
+                skipWhitespace();
+                if (peek() == ',') {
+                    pos++;
+                } else {
+                    expect(']');
+                    return array;
+                }
+            }
+        }
+
+        private String string() {
+            StringBuilder value = new StringBuilder();
+            pos++;
+            while (true) {
+                if (pos >= text.length()) {
+                    throw error("unterminated string");
+                }
+                char c = text.charAt(pos++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c < ' ') {
+                    throw error("raw control character");
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                char escape = text.charAt(pos++);
+                switch (escape) {
+                    case '"', '\\', '/' -> value.append(escape);
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'n' -> value.append('\n');
+                    case 'r' -> value.append('\r');
+                    case 't' -> value.append('\t');
+                    case 'u' -> {
+                        value.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        pos += 4;
+                    }
+                    default -> throw error("bad escape");
+                }
+            }
+        }
+
+        private Number number() {
+            int start = pos;
+            if (peek() == '-') {
+                pos++;
+            }
+            while (pos < text.length() && "0123456789.eE+-".indexOf(text.charAt(pos)) >= 0) {
+                pos++;
+            }
+            if (start == pos) {
+                throw error("unexpected character");
+            }
+            return Double.parseDouble(text.substring(start, pos));
+        }
+
+        private void skipWhitespace() {
+            while (pos < text.length() && " \t\n\r".indexOf(text.charAt(pos)) >= 0) {
+                pos++;
+            }
+        }
+
+        private char peek() {
+            return pos < text.length() ? text.charAt(pos) : '\0';
+        }
+
+        private void expect(char c) {
+            if (peek() != c) {
+                throw error("expected '" + c + "'");
+            }
+            pos++;
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at " + pos);
+        }
+    }
+}
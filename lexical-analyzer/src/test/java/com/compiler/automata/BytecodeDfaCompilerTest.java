@@ -0,0 +1,76 @@
+package com.compiler.automata;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.compiler.error.ErrorHandler;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class BytecodeDfaCompilerTest {
+    private static final int INPUTS = 5_000;
+
+    private static RegularExpression regex(String pattern) {
+        RegularExpression regex = new RegularExpression(pattern, new ErrorHandler());
+        assertEquals(RegularExpression.Engine.DFA, regex.getEngine());
+        return regex;
+    }
+
+    // Random strings over alphabet, with an occasional arbitrary char so
+    // transitions past the class map are taken as well
+    private static void assertAgrees(String pattern, String alphabet, int maxLength, long seed) {
+        RegularExpression regex = regex(pattern);
+        DFA dfa = regex.getDFA();
+        DfaMatcher bytecode = BytecodeDfaCompiler.compile(regex.compile());
+        Random random = new Random(seed);
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < INPUTS; i++) {
+            input.setLength(0);
+            int length = random.nextInt(maxLength + 1);
+            for (int j = 0; j < length; j++) {
+                input.append(random.nextInt(50) == 0
+                    ? (char) random.nextInt(Character.MAX_VALUE + 1)
+                    : alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String text = input.toString();
+            assertEquals(dfa.accepts(text), bytecode.matches(text), () -> pattern + " on '" + text + "'");
+        }
+        assertEquals(dfa.accepts(""), bytecode.matches(""));
+    }
+
+    @Test
+    void rangeChecksMatchTheDfa() {
+        // At most three runs per state, so every state dispatches with comparisons
+        assertAgrees("[a-z][a-z0-9]{0,31}", "az09mA_", 40, 1);
+        assertAgrees("[0-9]+\\.[0-9]{0,5}", "09.5x", 12, 2);
+        // Four runs, but spanning more than the switch limit
+        assertAgrees("(a|c|e|ā)+", "aceāb", 10, 3);
+    }
+
+    @Test
+    void tableswitchMatchesTheDfa() {
+        // Four or more runs within a narrow span of characters
+        assertAgrees("(a|c|e|g|i)(x|z)*", "abcdefghixyz", 10, 4);
+        assertAgrees("int|dec|bool|char|str|[0-9]+", "intdecboolcharstr0189", 8, 5);
+    }
+
+    @Test
+    void dispatchAboveTheClassMatchesTheDfa() {
+        // Class map covers all of char; negated classes send most of it to one state
+        assertAgrees("\"[^\"]*\"", "\"ab\\日", 10, 6);
+        assertAgrees("[α-ω]+|日本", "αβω日本x", 8, 7);
+    }
+
+    @Test
+    void manyStatesMatchTheDfa() {
+        String pattern = "(a|b)*a(a|b){8}";
+        assertEquals(513, regex(pattern).getDFA().getStates().size());
+        assertAgrees(pattern, "ab", 20, 8);
+    }
+
+    @Test
+    void oversizedAutomatonFallsBackToTheTable() {
+        CompiledDfa table = regex("(a|b)*a(a|b){10}").compile();
+        assertThrows(IllegalStateException.class, () -> BytecodeDfaCompiler.compile(table));
+        assertSame(table, BytecodeDfaCompiler.compileOrInterpret(table));
+    }
+}
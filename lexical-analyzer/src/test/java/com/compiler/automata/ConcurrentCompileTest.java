@@ -0,0 +1,103 @@
+package com.compiler.automata;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.compiler.error.ErrorHandler;
+import java.util.*;
+import java.util.concurrent.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Stress test for concurrent automaton construction. Every thread compiles
+ * the lexer's token patterns in its own order, released together from a start
+ * gate, and compares state counts and match results with a single-threaded
+ * baseline, including that every automaton numbers its states 0..n-1. Threads
+ * also match against one shared DFA.
+ */
+class ConcurrentCompileTest {
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 3;
+    private static final String[] SAMPLES = {
+        "", "int", "outln", "true", "abc123", "Abc", "42", "3.14159", "3.141592", "\"text\"",
+        "'c'", "#note", "#* body *#", "==", "!=", "@", ";", "a".repeat(32), "a".repeat(33)
+    };
+
+    @Test
+    void concurrentBuildsMatchSequentialBaseline() throws Exception {
+        String[] patterns = new String[TokenPatterns.size()];
+        for (int i = 0; i < patterns.length; i++) {
+            patterns[i] = TokenPatterns.patternOf(i);
+        }
+        String[] expected = new String[patterns.length];
+        for (int i = 0; i < patterns.length; i++) {
+            expected[i] = fingerprint(new RegularExpression(patterns[i], new ErrorHandler()));
+        }
+        DFA shared = new RegularExpression("[a-z][a-z0-9]{0,31}", new ErrorHandler()).getDFA();
+        boolean[] sharedExpected = new boolean[SAMPLES.length];
+        for (int s = 0; s < SAMPLES.length; s++) {
+            sharedExpected[s] = shared.accepts(SAMPLES[s]);
+        }
+
+        Queue<String> failures = new ConcurrentLinkedQueue<>();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                CountDownLatch gate = new CountDownLatch(1);
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    long seed = round * 1000L + t;
+                    futures.add(pool.submit(() -> {
+                        gate.await();
+                        List<Integer> order = new ArrayList<>();
+                        for (int i = 0; i < patterns.length; i++) {
+                            order.add(i);
+                        }
+                        Collections.shuffle(order, new Random(seed));
+                        for (int i : order) {
+                            ErrorHandler errorHandler = new ErrorHandler();
+                            String actual = fingerprint(new RegularExpression(patterns[i], errorHandler));
+                            if (!actual.equals(expected[i]) || errorHandler.hasErrors()) {
+                                failures.add("Mismatch for " + patterns[i] + ": " + actual
+                                             + " expected " + expected[i]);
+                            }
+                            for (int s = 0; s < SAMPLES.length; s++) {
+                                if (shared.accepts(SAMPLES[s]) != sharedExpected[s]) {
+                                    failures.add("Shared DFA mismatch on \"" + SAMPLES[s] + "\"");
+                                }
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                gate.countDown();
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertTrue(failures.isEmpty(), () -> String.join("\n", failures));
+    }
+
+    // Structure and behaviour summary that must not depend on the thread or order
+    private static String fingerprint(RegularExpression regex) {
+        StringBuilder result = new StringBuilder()
+            .append(regex.getNFA().getStates().size()).append('/')
+            .append(regex.getDFA().getStates().size())
+            .append(denseIds(regex.getNFA().getStates()) && denseIds(regex.getDFA().getStates()) ? ':' : '!');
+        for (String sample : SAMPLES) {
+            result.append(regex.matches(sample) ? '1' : '0');
+        }
+        return result.toString();
+    }
+
+    // Each automaton numbers its own states 0..n-1, whatever else is being built
+    private static boolean denseIds(Set<State> states) {
+        BitSet ids = new BitSet(states.size());
+        for (State state : states) {
+            ids.set(state.getId());
+        }
+        return ids.cardinality() == states.size() && ids.length() == states.size();
+    }
+}
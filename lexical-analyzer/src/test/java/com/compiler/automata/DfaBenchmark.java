@@ -0,0 +1,75 @@
+package com.compiler.automata;
+
+import com.compiler.error.ErrorHandler;
+import java.util.Random;
+import java.util.function.Predicate;
+
+/**
+ * Compares the three DFA backends on the same inputs: the State-graph DFA
+ * (DFA.accepts), the dense table (CompiledDfa) and generated bytecode.
+ *
+ *   java -cp target/classes:target/test-classes com.compiler.automata.DfaBenchmark [pattern] [inputs]
+ */
+public class DfaBenchmark {
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) {
+        String pattern = args.length > 0 ? args[0] : "[a-z][a-z0-9]{0,31}";
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+
+        ErrorHandler errorHandler = new ErrorHandler();
+        RegularExpression regex = new RegularExpression(pattern, errorHandler);
+        if (errorHandler.hasErrors() || regex.getEngine() != RegularExpression.Engine.DFA) {
+            errorHandler.printErrors();
+            System.exit(1);
+        }
+        CompiledDfa table = regex.compile();
+        DfaMatcher bytecode = BytecodeDfaCompiler.compile(table);
+
+        String[] inputs = generateInputs(count, new Random(42));
+        long totalChars = 0;
+        for (String input : inputs) {
+            totalChars += input.length();
+        }
+
+        System.out.println("Pattern: " + pattern + " (" + regex.getDFA().getStates().size() + " DFA states, "
+                           + table.getClassCount() + " symbol classes)");
+        System.out.println("Inputs:  " + count + " strings, " + totalChars + " characters");
+        run("DFA.accepts", inputs, totalChars, regex.getDFA()::accepts);
+        run("CompiledDfa", inputs, totalChars, table::matches);
+        run("Bytecode", inputs, totalChars, bytecode::matches);
+    }
+
+    // Mostly identifier-like words, some too long or containing other characters
+    private static String[] generateInputs(int count, Random random) {
+        String alphabet = "abcdefghijklmnopqrstuvwxyz0123456789_A";
+        String[] inputs = new String[count];
+        for (int i = 0; i < count; i++) {
+            int length = 1 + random.nextInt(random.nextInt(10) == 0 ? 48 : 16);
+            StringBuilder builder = new StringBuilder(length);
+            for (int j = 0; j < length; j++) {
+                int k = random.nextInt(100);
+                builder.append(k < 97 ? alphabet.charAt(random.nextInt(36)) : alphabet.charAt(36 + k % 2));
+            }
+            inputs[i] = builder.toString();
+        }
+        return inputs;
+    }
+
+    private static void run(String name, String[] inputs, long totalChars, Predicate<String> matcher) {
+        int accepted = 0;
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            accepted = 0;
+            long start = System.nanoTime();
+            for (String input : inputs) {
+                if (matcher.test(input)) {
+                    accepted++;
+                }
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%-12s %8.2f ms  %8.1f Mchar/s  (%d accepted)%n",
+                          name, best / 1e6, totalChars * 1e3 / best, accepted);
+    }
+}
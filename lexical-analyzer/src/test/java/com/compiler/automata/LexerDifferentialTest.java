@@ -0,0 +1,328 @@
+package com.compiler.automata;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.compiler.error.ErrorHandler;
+import com.compiler.lexer.LexicalAnalyzer;
+import com.compiler.lexer.RecoveryStrategy;
+import com.compiler.lexer.Token;
+import com.compiler.lexer.TokenType;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Differential fuzz check of the hand-written LexicalAnalyzer against a
+ * longest-match scanner driven by the TokenPatterns table. Random programs
+ * are built from token-like fragments (keywords, identifiers around the
+ * 32-character limit, decimals around 5 places, unterminated literals and
+ * comments, stray characters) over printable ASCII, whitespace and some
+ * non-ASCII and supplementary characters. Both the String and UTF-8 lexers
+ * must produce the same token types, spans and positions as the scanner up to
+ * and including the first invalid token, after which error recovery is the
+ * lexer's own business. Each seed gives the same inputs on every run.
+ */
+class LexerDifferentialTest {
+    private static final int INPUTS_PER_SEED = 25_000;
+    private static final int MAX_REPORTED = 10;
+    // The patterns are written over ASCII. Any other character plays no part in
+    // token syntax, so the scanner runs it through the table as a backquote,
+    // which no pattern names either.
+    private static final char STAND_IN = '`';
+    private static final String[] NON_ASCII = {
+        "é", "ü", "ß", "中", "≠", "\u00a0", "\u2003", "😀", "𝔸"
+    };
+    private static final String[] KEYWORDS = {
+        "int", "dec", "bool", "char", "str", "in", "out", "outln", "true", "false", "inx", "outl", "truely"
+    };
+    private static final String[] OPERATORS = {
+        "==", "!=", "=", "<", ">", "<=", ">=", "+", "-", "*", "/", "%", "^", ";", "@", "!", "*#", "."
+    };
+    private static final String WHITESPACE = " \t\n\r";
+    private static final String LOWER = "abcdefghijklmnopqrstuvwxyz";
+    private static final String DIGITS = "0123456789";
+
+    // One token from either engine: its type and the half-open span [start, end)
+    private static final class Lexeme {
+        final TokenType type;
+        final int start;
+        final int end;    // -1 for invalid tokens, whose extent depends on recovery
+        final int line;
+        final int column;
+
+        Lexeme(TokenType type, int start, int end, int line, int column) {
+            this.type = type;
+            this.start = start;
+            this.end = type == TokenType.INVALID ? -1 : end;
+            this.line = line;
+            this.column = column;
+        }
+
+        boolean sameAs(Lexeme other) {
+            return type == other.type && start == other.start && end == other.end
+                && line == other.line && column == other.column;
+        }
+
+        @Override
+        public String toString() {
+            return type + " [" + start + ", " + (end < 0 ? "?" : end) + ") at " + line + ":" + column;
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {1, 2, 3, 4, 5, 6, 7, 8})
+    void lexerAgreesWithTokenPatterns(long seed) {
+        CompiledDfa table = TokenPatterns.table();
+        Random random = new Random(seed);
+        List<String> failures = new ArrayList<>();
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < INPUTS_PER_SEED && failures.size() < MAX_REPORTED; i++) {
+            input.setLength(0);
+            generate(random, input);
+            check(table, input.toString(), failures);
+        }
+        assertTrue(failures.isEmpty(), () -> "Seed " + seed + ":\n" + String.join("\n", failures));
+    }
+
+    // Compares both lexers with the scanner on one input
+    private static void check(CompiledDfa table, String text, List<String> failures) {
+        List<Lexeme> expected = scan(table, text);
+        List<Lexeme> fromString = lex(new LexicalAnalyzer(text, new ErrorHandler()), null);
+        List<Lexeme> fromBytes = lex(new LexicalAnalyzer(text.getBytes(StandardCharsets.UTF_8),
+            new ErrorHandler(), EnumSet.noneOf(RecoveryStrategy.class)), charOffsets(text));
+        int at = firstDifference(expected, fromString);
+        if (at >= 0) {
+            failures.add(report(text, at, expected, fromString, "String"));
+            return;
+        }
+        at = firstDifference(expected, fromBytes);
+        if (at >= 0) {
+            failures.add(report(text, at, expected, fromBytes, "UTF-8"));
+        }
+    }
+
+    // Char offset of each UTF-8 byte offset of text, for comparing byte-based spans
+    private static int[] charOffsets(String text) {
+        int[] offsets = new int[text.getBytes(StandardCharsets.UTF_8).length + 1];
+        int bytes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int width = c < 0x80 ? 1 : c < 0x800 ? 2 : Character.isSurrogate(c) ? 2 : 3;
+            for (int b = 0; b < width; b++) {
+                offsets[bytes++] = i;
+            }
+        }
+        offsets[bytes] = text.length();
+        return offsets;
+    }
+
+    // Longest match over all token patterns, earlier patterns winning ties, plus the
+    // lexer's word boundaries, which the patterns cannot express: a longest match
+    // may not be directly followed by a character that would extend the lexer's word
+    private static List<Lexeme> scan(CompiledDfa table, String text) {
+        List<Lexeme> result = new ArrayList<>();
+        int position = 0;
+        int line = 1;
+        int lineStart = 0;
+        while (true) {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                if (text.charAt(position) == '\n') {
+                    line++;
+                    lineStart = position + 1;
+                }
+                position++;
+            }
+            if (position == text.length()) {
+                result.add(new Lexeme(TokenType.EOF, position, position, line, position - lineStart + 1));
+                return result;
+            }
+
+            int state = 0;
+            int pattern = -1;
+            int end = position;
+            for (int i = position; i < text.length(); i++) {
+                char c = text.charAt(i);
+                state = table.next(state, c < 0x80 ? c : STAND_IN);
+                if (state == CompiledDfa.DEAD) {
+                    break;
+                }
+                if (table.isAccepting(state)) {
+                    pattern = table.firstAccepting(state);
+                    end = i + 1;
+                }
+            }
+            TokenType type = pattern < 0 ? TokenType.INVALID : TokenPatterns.typeOf(pattern);
+            if (end < text.length() && extendsWord(type, text.charAt(end))) {
+                type = TokenType.INVALID;
+            }
+            result.add(new Lexeme(type, position, end, line, position - lineStart + 1));
+            if (type == TokenType.INVALID) {
+                return result;
+            }
+            for (int i = position; i < end; i++) {
+                if (text.charAt(i) == '\n') {
+                    line++;
+                    lineStart = i + 1;
+                }
+            }
+            position = end;
+        }
+    }
+
+    private static boolean extendsWord(TokenType type, char next) {
+        switch (type) {
+            case IDENTIFIER: case INT: case DEC: case BOOL: case CHAR: case STR:
+            case IN: case OUT: case OUTLN: case BOOLEAN_LITERAL:
+                return LOWER.indexOf(next) >= 0 || DIGITS.indexOf(next) >= 0;    // longer than 32 characters
+            case INTEGER_LITERAL: case DECIMAL_LITERAL:
+                return DIGITS.indexOf(next) >= 0 || next == '.';    // extra places or a second point
+            case SINGLE_COMMENT:
+                return next == '*';    // "#*" always opens a multi-line comment
+            default:
+                return false;
+        }
+    }
+
+    // charOffsets maps byte offsets to char offsets, or is null for String input
+    private static List<Lexeme> lex(LexicalAnalyzer lexer, int[] charOffsets) {
+        List<Lexeme> result = new ArrayList<>();
+        Token token;
+        do {
+            token = lexer.next();
+            int start = charOffsets == null ? token.getOffset() : charOffsets[token.getOffset()];
+            result.add(new Lexeme(token.getType(), start, start + sourceLength(token),
+                                  token.getLine(), token.getColumn()));
+        } while (token.getType() != TokenType.EOF && token.getType() != TokenType.INVALID);
+        return result;
+    }
+
+    // Token values leave out quotes and comment markers
+    private static int sourceLength(Token token) {
+        switch (token.getType()) {
+            case STRING_LITERAL: case CHARACTER_LITERAL:
+                return token.getValue().length() + 2;
+            case SINGLE_COMMENT:
+                return token.getValue().length() + 1;
+            case MULTI_COMMENT_START:
+                return token.getValue().length() + 4;
+            default:
+                return token.getValue().length();
+        }
+    }
+
+    private static int firstDifference(List<Lexeme> expected, List<Lexeme> actual) {
+        for (int i = 0; i < Math.min(expected.size(), actual.size()); i++) {
+            if (!expected.get(i).sameAs(actual.get(i))) {
+                return i;
+            }
+        }
+        return expected.size() == actual.size() ? -1 : Math.min(expected.size(), actual.size());
+    }
+
+    private static String report(String text, int at, List<Lexeme> expected, List<Lexeme> actual, String reader) {
+        return "Difference in token " + at + " (" + reader + " lexer) for \"" + escape(text) + "\"\n"
+               + "  patterns: " + (at < expected.size() ? expected.get(at) : "<none>") + "\n"
+               + "  lexer:    " + (at < actual.size() ? actual.get(at) : "<none>");
+    }
+
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("\n", "\\n").replace("\t", "\\t").replace("\r", "\\r")
+                   .replace("\"", "\\\"");
+    }
+
+    // A short program of token-like fragments, mostly separated by whitespace
+    private static void generate(Random random, StringBuilder out) {
+        int fragments = 1 + random.nextInt(12);
+        for (int f = 0; f < fragments; f++) {
+            switch (random.nextInt(12)) {
+                case 0 -> out.append(KEYWORDS[random.nextInt(KEYWORDS.length)]);
+                case 1 -> {
+                    // Identifiers cluster around the 32-character limit
+                    int length = random.nextBoolean() ? 1 + random.nextInt(8) : 30 + random.nextInt(5);
+                    out.append(LOWER.charAt(random.nextInt(LOWER.length())));
+                    append(random, out, LOWER + DIGITS, length - 1);
+                }
+                case 2 -> append(random, out, DIGITS, 1 + random.nextInt(6));
+                case 3 -> {
+                    append(random, out, DIGITS, 1 + random.nextInt(4));
+                    out.append('.');
+                    append(random, out, DIGITS, random.nextInt(8));
+                    if (random.nextInt(8) == 0) {
+                        out.append('.').append(DIGITS.charAt(random.nextInt(10)));
+                    }
+                }
+                case 4 -> {
+                    out.append('"');
+                    appendPrintable(random, out, random.nextInt(10), '"');
+                    if (random.nextInt(6) != 0) {
+                        out.append('"');
+                    }
+                }
+                case 5 -> {
+                    out.append('\'');
+                    appendPrintable(random, out, random.nextInt(4) == 0 ? random.nextInt(3) : 1, (char) 0);
+                    if (random.nextInt(6) != 0) {
+                        out.append('\'');
+                    }
+                }
+                case 6 -> {
+                    out.append('#');
+                    appendPrintable(random, out, random.nextInt(12), '\n');
+                    out.append('\n');
+                }
+                case 7 -> {
+                    out.append("#*");
+                    for (int i = random.nextInt(12); i > 0; i--) {
+                        if (random.nextInt(4) == 0) {
+                            out.append('*');
+                        } else {
+                            appendPrintable(random, out, 1, (char) 0);
+                        }
+                    }
+                    if (random.nextInt(6) != 0) {
+                        out.append("*#");
+                    }
+                }
+                case 8 -> out.append(OPERATORS[random.nextInt(OPERATORS.length)]);
+                case 9 -> {
+                    // Uppercase letters are not part of any token
+                    out.append(LOWER.charAt(random.nextInt(LOWER.length())));
+                    out.append((char) ('A' + random.nextInt(26)));
+                }
+                case 10 -> out.append(NON_ASCII[random.nextInt(NON_ASCII.length)]);
+                default -> out.append(printable(random));
+            }
+            if (random.nextInt(4) != 0) {
+                out.append(WHITESPACE.charAt(random.nextInt(WHITESPACE.length())));
+            }
+        }
+    }
+
+    private static void append(Random random, StringBuilder out, String alphabet, int length) {
+        for (int i = 0; i < length; i++) {
+            out.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+    }
+
+    // Mostly printable ASCII and whitespace, the alphabet the token patterns are
+    // written over; one character in ten is non-ASCII
+    private static void appendPrintable(Random random, StringBuilder out, int length, char excluded) {
+        for (int i = 0; i < length; i++) {
+            if (random.nextInt(10) == 0) {
+                out.append(NON_ASCII[random.nextInt(NON_ASCII.length)]);
+                continue;
+            }
+            char c;
+            do {
+                c = printable(random);
+            } while (c == excluded);
+            out.append(c);
+        }
+    }
+
+    private static char printable(Random random) {
+        int k = random.nextInt(100);
+        return k < 95 ? (char) (' ' + k) : WHITESPACE.charAt(k % 4);
+    }
+}
@@ -0,0 +1,31 @@
+package com.compiler.automata;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.compiler.error.ErrorHandler;
+import java.util.BitSet;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PatternSetTest {
+    private final PatternSet set = new PatternSet(
+        List.of("int|str", "[a-z][a-z0-9]*", "[0-9]+"), new ErrorHandler());
+
+    @Test
+    void matchAllAndFirstMatchAgree() {
+        assertEquals(BitSet.valueOf(new long[] {0b011}), set.matchAll("int"));
+        assertEquals(0, set.firstMatch("int"));
+        assertEquals(BitSet.valueOf(new long[] {0b010}), set.matchAll("x1"));
+        assertEquals(1, set.firstMatch("x1"));
+        assertTrue(set.matchAll("X").isEmpty());
+        assertEquals(-1, set.firstMatch("X"));
+        assertFalse(set.matchesAny(""));
+    }
+
+    @Test
+    void malformedPatternIsReportedWhenBuilt() {
+        ErrorHandler errors = new ErrorHandler();
+        new PatternSet(List.of("(a"), errors);
+        assertTrue(errors.hasErrors());
+    }
+}
@@ -0,0 +1,47 @@
+package com.compiler.automata;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.compiler.error.ErrorHandler;
+import org.junit.jupiter.api.Test;
+
+class RegularExpressionTest {
+    // 2^9 + 1 DFA states
+    private static final String WIDE = "(a|b)*a(a|b){8}";
+
+    @Test
+    void legacyConstructorAlwaysBuildsTheFullDfa() {
+        RegularExpression regex = new RegularExpression(WIDE, new ErrorHandler());
+        assertEquals(RegularExpression.Engine.DFA, regex.getEngine());
+        assertEquals(513, regex.getDFA().getStates().size());
+        assertTrue(regex.getLimitViolations().isEmpty());
+    }
+
+    @Test
+    void defaultLimitsHaveNoWallClockCap() {
+        assertEquals(Long.MAX_VALUE, CompileLimits.DEFAULT.getMaxCompileMillis());
+        assertEquals(250, CompileLimits.DEFAULT.withCompileMillis(250).getMaxCompileMillis());
+    }
+
+    @Test
+    void lazyFallbackHasNoDfa() {
+        ErrorHandler errors = new ErrorHandler();
+        RegularExpression regex = new RegularExpression(
+            WIDE, errors, new CompileLimits(1_000, 64, 4_096, Long.MAX_VALUE));
+        assertEquals(RegularExpression.Engine.LAZY_DFA, regex.getEngine());
+        assertThrows(IllegalStateException.class, regex::getDFA);
+        assertTrue(regex.matches("ba" + "b".repeat(8)));
+        assertFalse(regex.matches("b".repeat(9)));
+        assertTrue(errors.hasWarnings());
+    }
+
+    @Test
+    void malformedPatternHasNoEngine() {
+        ErrorHandler errors = new ErrorHandler();
+        RegularExpression regex = new RegularExpression("(a", errors);
+        assertEquals(RegularExpression.Engine.NONE, regex.getEngine());
+        assertThrows(IllegalStateException.class, regex::getDFA);
+        assertFalse(regex.matches("a"));
+        assertTrue(errors.hasErrors());
+    }
+}
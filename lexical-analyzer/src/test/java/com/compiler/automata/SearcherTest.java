@@ -0,0 +1,113 @@
+package com.compiler.automata;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.compiler.error.ErrorHandler;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class SearcherTest {
+    private static RegularExpression regex(String pattern) {
+        return new RegularExpression(pattern, new ErrorHandler());
+    }
+
+    private static String prefixOf(String pattern) {
+        return new Searcher(regex(pattern).getNFA(), new ErrorHandler(), CompileLimits.UNLIMITED).getPrefix();
+    }
+
+    // Leftmost-longest by trying every span with the whole-input matcher
+    private static Match bruteFind(RegularExpression regex, String text, int from) {
+        for (int start = from; start <= text.length(); start++) {
+            for (int end = text.length(); end >= start; end--) {
+                if (regex.matches(text.substring(start, end))) {
+                    return new Match(start, end);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static List<Match> bruteFindAll(RegularExpression regex, String text) {
+        List<Match> matches = new ArrayList<>();
+        int from = 0;
+        Match match;
+        while (from <= text.length() && (match = bruteFind(regex, text, from)) != null) {
+            matches.add(match);
+            from = match.length() > 0 ? match.getEnd() : match.getEnd() + 1;
+        }
+        return matches;
+    }
+
+    @Test
+    void literalPrefixIsFoundOnlyWhenEveryMatchStartsWithIt() {
+        assertEquals("abc", prefixOf("abc+d"));
+        assertEquals("ne", prefixOf("ne(edle|st)"));
+        assertEquals("", prefixOf("[ab]c"));
+        assertEquals("", prefixOf("a*"));
+        assertEquals("", prefixOf("x|y"));
+    }
+
+    @Test
+    void leftmostCandidateWinsAmongOverlappingOnes() {
+        assertEquals(new Match(1, 4), regex("aab|ab").find("aaab"));
+        assertEquals(new Match(0, 6), regex("(ab)+").find("ababab"));
+        // Several starts end at the same place; the leftmost one that matches is taken
+        assertEquals(new Match(0, 5), regex("a*b").find("aaaab"));
+        assertEquals(List.of(new Match(0, 4), new Match(4, 8)), regex("abab").findAll("abababab"));
+        assertEquals(List.of(new Match(0, 3)), regex("aaa").findAll("aaaaa"));
+        assertEquals(List.of(new Match(2, 5), new Match(5, 8)), regex("x[a-z]y").findAll("--xay" + "xby-"));
+    }
+
+    @Test
+    void emptyMatchesAdvanceThePosition() {
+        RegularExpression stars = regex("a*");
+        assertEquals(List.of(new Match(0, 0), new Match(1, 3), new Match(3, 3), new Match(4, 4)),
+                     stars.findAll("baab"));
+        assertEquals(List.of(new Match(0, 0)), stars.findAll(""));
+        assertEquals(new Match(2, 2), stars.find("bb", 2));
+        assertNull(stars.find("bb", 3));
+    }
+
+    @Test
+    void matchesAtTheEndOfInput() {
+        assertEquals(new Match(2, 5), regex("xyz").find("aaxyz"));
+        assertEquals(new Match(1, 3), regex("ab+").find("cab"));
+        assertEquals(new Match(3, 6), regex("[0-9]+").find("ab 123"));
+        assertNull(regex("xyz").find("aaxy"));
+        assertNull(regex("[0-9]+").find("abc"));
+    }
+
+    @Test
+    void prefixSkippingWorksOnAnyCharSequence() {
+        String haystack = "-".repeat(1000) + "needle" + "-".repeat(10) + "nest";
+        RegularExpression pattern = regex("ne(edle|st)");
+        assertEquals(List.of(new Match(1000, 1006), new Match(1016, 1020)), pattern.findAll(haystack));
+        assertEquals(pattern.findAll(haystack), pattern.findAll(new StringBuilder(haystack)));
+        assertNull(pattern.find(haystack, 1017));
+        assertNull(pattern.find(new StringBuilder(haystack), 1017));
+    }
+
+    @Test
+    void agreesWithBruteForceOnSeededInputs() {
+        String[] patterns = {"a*", "ab|b", "(ab)+", "a(a|b)*b", "ba?b", "aab", "(a|b)b*a?", "b{2,3}"};
+        Random random = new Random(42);
+        for (String pattern : patterns) {
+            RegularExpression regex = regex(pattern);
+            for (int i = 0; i < 300; i++) {
+                StringBuilder text = new StringBuilder();
+                int length = random.nextInt(12);
+                for (int j = 0; j < length; j++) {
+                    text.append("abc".charAt(random.nextInt(3)));
+                }
+                String input = text.toString();
+                int from = random.nextInt(length + 1);
+                assertEquals(bruteFind(regex, input, from), regex.find(input, from),
+                             () -> pattern + " in '" + input + "' from " + from);
+                assertEquals(bruteFindAll(regex, input), regex.findAll(input),
+                             () -> pattern + " in '" + input + "'");
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.compiler.error;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class ErrorHandlerTest {
+    private static String captureErr(Runnable action) {
+        PrintStream original = System.err;
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(buffer, true, StandardCharsets.UTF_8));
+        try {
+            action.run();
+        } finally {
+            System.setErr(original);
+        }
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void printsOnlyEntriesFromTheGivenIndex() {
+        ErrorHandler errors = new ErrorHandler();
+        errors.addError(1, 1, "lexical");
+        errors.addWarning(1, 2, "early");
+        int lexicalEnd = errors.getErrorCount();
+        errors.addError(2, 1, "symbol");
+        errors.addWarning(2, 2, "late");
+
+        String symbolErrors = captureErr(() -> errors.printErrors(lexicalEnd));
+        assertEquals("ERROR at line 2, column 1: symbol" + System.lineSeparator(), symbolErrors);
+        String warnings = captureErr(() -> errors.printWarnings(1));
+        assertEquals("Warning at line 2, column 2: late" + System.lineSeparator(), warnings);
+        assertEquals(2, errors.getErrorCount());
+        assertEquals(2, errors.getWarningCount());
+    }
+}
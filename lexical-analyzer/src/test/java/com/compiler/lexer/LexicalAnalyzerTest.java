@@ -0,0 +1,75 @@
+package com.compiler.lexer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.compiler.error.ErrorHandler;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class LexicalAnalyzerTest {
+    private static List<String> lex(LexicalAnalyzer lexer, ErrorHandler errors) {
+        List<String> out = new ArrayList<>();
+        for (Token token : lexer.tokenize()) {
+            out.add(token.getType() + " '" + token.getValue() + "'");
+        }
+        for (Object error : errors.getErrors()) {
+            out.add(error.toString());
+        }
+        return out;
+    }
+
+    private static void assertPathsAgree(String source, String... expected) {
+        for (EnumSet<RecoveryStrategy> recovery : List.of(
+                EnumSet.noneOf(RecoveryStrategy.class), EnumSet.allOf(RecoveryStrategy.class))) {
+            ErrorHandler stringErrors = new ErrorHandler();
+            List<String> fromString = lex(new LexicalAnalyzer(source, stringErrors, recovery), stringErrors);
+            ErrorHandler byteErrors = new ErrorHandler();
+            List<String> fromBytes = lex(new LexicalAnalyzer(
+                source.getBytes(StandardCharsets.UTF_8), byteErrors, recovery), byteErrors);
+
+            assertEquals(fromString, fromBytes, recovery.toString());
+            for (String line : expected) {
+                assertTrue(fromString.contains(line), () -> line + " not in " + fromString);
+            }
+        }
+    }
+
+    // There are no <= or >= operators; '=' after '<' or '>' is an ASSIGN of its own
+    @Test
+    void lessOrGreaterThenEqualsIsTwoTokens() {
+        ErrorHandler errors = new ErrorHandler();
+        List<String> tokens = lex(new LexicalAnalyzer("a<=b>=c", errors), errors);
+        assertEquals(List.of("IDENTIFIER 'a'", "LESS_THAN '<'", "ASSIGN '='", "IDENTIFIER 'b'",
+                             "GREATER_THAN '>'", "ASSIGN '='", "IDENTIFIER 'c'", "EOF ''"), tokens);
+        assertPathsAgree("a <= b >= c == d != e");
+    }
+
+    @Test
+    void supplementaryCharacterLiteralIsInvalidOnBothPaths() {
+        assertPathsAgree("char c = '😀';",
+            "INVALID '😀'",
+            "SEMICOLON ';'",
+            "ERROR at line 1, column 10: Character literal out of range: 😀");
+    }
+
+    @Test
+    void nonAsciiCharactersLexAlikeOnBothPaths() {
+        assertPathsAgree("char c = 'é';\nstr s = \"é😀\";\n😀\n",
+            "CHARACTER_LITERAL 'é'",
+            "INVALID '😀'",
+            "STRING_LITERAL 'é😀'");
+    }
+
+    @SuppressWarnings("deprecation")
+    @Test
+    void deprecatedStringConstructorStillReads() {
+        SourceReader reader = new SourceReader("ab\ncd");
+        reader.jumpTo(3);
+        assertEquals('c', reader.current());
+        assertEquals(2, reader.getLine());
+        assertEquals(1, reader.getColumn());
+    }
+}
@@ -0,0 +1,64 @@
+package com.compiler.lexer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.compiler.error.ErrorHandler;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class TokenTest {
+    @Test
+    void constructedTokenKeepsItsPosition() {
+        assertEquals(0, new Token(TokenType.IDENTIFIER, "x", 0, 0).getLine());
+        Token token = new Token(TokenType.IDENTIFIER, "x", 3, 7);
+        assertEquals(3, token.getLine());
+        assertEquals(7, token.getColumn());
+        assertEquals("Token{type=IDENTIFIER, value='x', position=(3,7)}", token.toString());
+    }
+
+    @Test
+    void positionsResolveConsistentlyAcrossThreads() throws Exception {
+        StringBuilder source = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            source.append("str s").append(i).append(" = \"é\"; int n").append(i).append(";\n");
+        }
+        byte[] utf8 = source.toString().getBytes(StandardCharsets.UTF_8);
+        List<Token> expected = new LexicalAnalyzer(
+            utf8, new ErrorHandler(), EnumSet.noneOf(RecoveryStrategy.class)).tokenize();
+
+        for (int round = 0; round < 5; round++) {
+            List<Token> tokens = new LexicalAnalyzer(
+                utf8, new ErrorHandler(), EnumSet.noneOf(RecoveryStrategy.class)).tokenize();
+            ExecutorService pool = Executors.newFixedThreadPool(4);
+            try {
+                List<Future<int[]>> results = new ArrayList<>();
+                for (int t = 0; t < 4; t++) {
+                    int first = t;
+                    results.add(pool.submit(() -> {
+                        int[] positions = new int[tokens.size() * 2];
+                        for (int i = first; i < tokens.size(); i += 4) {
+                            positions[2 * i] = tokens.get(i).getLine();
+                            positions[2 * i + 1] = tokens.get(i).getColumn();
+                        }
+                        return positions;
+                    }));
+                }
+                for (int t = 0; t < 4; t++) {
+                    int[] positions = results.get(t).get();
+                    for (int i = t; i < tokens.size(); i += 4) {
+                        assertEquals(expected.get(i).getLine(), positions[2 * i], "line of token " + i);
+                        assertEquals(expected.get(i).getColumn(), positions[2 * i + 1], "column of token " + i);
+                    }
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+}
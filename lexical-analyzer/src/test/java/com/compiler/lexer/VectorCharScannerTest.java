@@ -0,0 +1,89 @@
+package com.compiler.lexer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+// Runs only when the vector scanner is active, which surefire arranges by adding
+// jdk.incubator.vector; lengths up to 140 cross every lane boundary up to 512 bits
+class VectorCharScannerTest {
+    private static final String SPACES = " \t\n\r\u000B\f\u001C\u001F";
+    private static final CharScanner SCALAR = new CharScanner();
+    private static CharScanner vector;
+
+    @BeforeAll
+    static void requireVectorScanner() {
+        vector = CharScanner.get();
+        assumeTrue(vector.isVectorized(), "jdk.incubator.vector is not available");
+    }
+
+    static IntStream lengths() {
+        return IntStream.rangeClosed(0, 140);
+    }
+
+    private static String repeatFrom(String alphabet, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(i % alphabet.length()));
+        }
+        return text.toString();
+    }
+
+    private static List<String> texts(int length) {
+        String run = repeatFrom(SPACES, length);
+        return List.of(
+            run,
+            run + "x = 1;",
+            // Non-ASCII whitespace takes the scalar confirmation path, U+00A0 does not count
+            repeatFrom("  \t　", length) + "  y",
+            "#* " + repeatFrom("ab*c\n*", length) + "*# z",
+            repeatFrom("**\n#", length),
+            repeatFrom("*", length) + "#");
+    }
+
+    private static void assertSameResults(char[] text, int from) {
+        int to = text.length;
+        assertEquals(SCALAR.skipWhitespace(text, from, to), vector.skipWhitespace(text, from, to));
+        assertEquals(SCALAR.indexOf(text, from, to, '*'), vector.indexOf(text, from, to, '*'));
+        assertEquals(SCALAR.indexOf(text, from, to, '\n'), vector.indexOf(text, from, to, '\n'));
+        assertEquals(SCALAR.countNewlines(text, from, to), vector.countNewlines(text, from, to));
+        assertEquals(SCALAR.indexOfCommentEnd(text, from, to), vector.indexOfCommentEnd(text, from, to));
+    }
+
+    private static void assertSameResults(byte[] text, int from) {
+        int to = text.length;
+        assertEquals(SCALAR.skipWhitespace(text, from, to), vector.skipWhitespace(text, from, to));
+        assertEquals(SCALAR.indexOf(text, from, to, (byte) '*'), vector.indexOf(text, from, to, (byte) '*'));
+        assertEquals(SCALAR.indexOf(text, from, to, (byte) '\n'), vector.indexOf(text, from, to, (byte) '\n'));
+        assertEquals(SCALAR.countNewlines(text, from, to), vector.countNewlines(text, from, to));
+        assertEquals(SCALAR.indexOfCommentEnd(text, from, to), vector.indexOfCommentEnd(text, from, to));
+    }
+
+    @ParameterizedTest
+    @MethodSource("lengths")
+    void agreesWithScalarScannerOnChars(int length) {
+        for (String text : texts(length)) {
+            char[] chars = text.toCharArray();
+            for (int from = 0; from <= Math.min(3, chars.length); from++) {
+                assertSameResults(chars, from);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("lengths")
+    void agreesWithScalarScannerOnUtf8(int length) {
+        for (String text : texts(length)) {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            for (int from = 0; from <= Math.min(3, bytes.length); from++) {
+                assertSameResults(bytes, from);
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.compiler.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.compiler.automata.RegularExpression;
+import com.compiler.error.ErrorHandler;
+import org.junit.jupiter.api.Test;
+
+class CompilationMetricsTest {
+    @Test
+    void recordsAutomatonStateCounts() {
+        CompilationMetrics metrics = new CompilationMetrics();
+        RegularExpression regex = new RegularExpression("(a|b)+", new ErrorHandler());
+        metrics.recordAutomaton(regex);
+
+        String json = metrics.toJson();
+        assertTrue(json.contains("\"pattern\": \"(a|b)+\", \"nfa_states\": "
+                                 + regex.getNFA().getStates().size()), json);
+        assertTrue(metrics.toPrometheus().contains("aa_automaton_states{pattern=\"(a|b)+\",kind=\"dfa\"} "
+                                                   + regex.getDFA().getStates().size()));
+    }
+
+    @Test
+    void leavesOutDfaStatesWhenThereIsNoDfa() {
+        CompilationMetrics metrics = new CompilationMetrics();
+        metrics.recordAutomaton(new RegularExpression("(a", new ErrorHandler()));
+
+        assertTrue(metrics.toJson().contains("\"dfa_states\": null"), metrics.toJson());
+        assertFalse(metrics.toPrometheus().contains("kind=\"dfa\""));
+    }
+
+    @Test
+    void escapesControlCharactersInJson() {
+        CompilationMetrics metrics = new CompilationMetrics();
+        metrics.recordAutomaton(new RegularExpression("a\tb\u0001\"", new ErrorHandler()));
+
+        String json = metrics.toJson();
+        assertTrue(json.contains("\"pattern\": \"a\\tb\\u0001\\\"\""), json);
+        for (char c : json.toCharArray()) {
+            assertFalse(c < 0x20 && c != '\n', "raw control character in JSON");
+        }
+    }
+}
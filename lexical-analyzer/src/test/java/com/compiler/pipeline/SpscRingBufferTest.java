@@ -0,0 +1,90 @@
+package com.compiler.pipeline;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+class SpscRingBufferTest {
+    @Test
+    void capacityRoundsUpToAPowerOfTwo() {
+        SpscRingBuffer<Integer> buffer = new SpscRingBuffer<>(3);
+        int accepted = 0;
+        while (buffer.offer(accepted)) {
+            accepted++;
+        }
+        assertEquals(4, accepted);
+        assertEquals(0, buffer.poll());
+        assertTrue(buffer.offer(4));
+        assertFalse(buffer.offer(5));
+    }
+
+    @Test
+    void keepsFifoOrderAcrossManyWraparounds() {
+        SpscRingBuffer<Integer> buffer = new SpscRingBuffer<>(4);
+        int next = 0;
+        int expected = 0;
+        for (int round = 0; round < 1000; round++) {
+            // Vary the fill level so head and tail cross the end of the array at every offset
+            int fill = 1 + round % 3;
+            for (int i = 0; i < fill; i++) {
+                assertTrue(buffer.offer(next++));
+            }
+            while (next - expected > round % 2) {
+                assertEquals(expected++, buffer.poll());
+            }
+        }
+        while (expected < next) {
+            assertEquals(expected++, buffer.poll());
+        }
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    void producerWaitsForASlowConsumer() throws Exception {
+        SpscRingBuffer<Integer> buffer = new SpscRingBuffer<>(2);
+        int total = 2000;
+        AtomicBoolean sawFull = new AtomicBoolean();
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < total; i++) {
+                if (!buffer.offer(i)) {
+                    sawFull.set(true);
+                    assertTrue(buffer.put(i, () -> false));
+                }
+            }
+        });
+
+        List<Integer> received = new ArrayList<>(total);
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            producer.start();
+            while (received.size() < total) {
+                if (received.size() % 100 == 0) {
+                    Thread.sleep(1);
+                }
+                received.add(buffer.take(() -> false));
+            }
+            producer.join();
+        });
+
+        assertTrue(sawFull.get());
+        for (int i = 0; i < total; i++) {
+            assertEquals(i, received.get(i));
+        }
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    void waitsEndWhenCancelled() {
+        SpscRingBuffer<Integer> buffer = new SpscRingBuffer<>(2);
+        assertNull(buffer.take(() -> true));
+        assertTrue(buffer.offer(1));
+        assertTrue(buffer.offer(2));
+        assertFalse(buffer.put(3, () -> true));
+        assertEquals(1, buffer.poll());
+        assertEquals(2, buffer.poll());
+        assertNull(buffer.poll());
+    }
+}
@@ -0,0 +1,117 @@
+package com.compiler.pipeline;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.compiler.error.Diagnostic;
+import com.compiler.error.DiagnosticsCollector;
+import com.compiler.lexer.LexicalAnalyzer;
+import com.compiler.lexer.RecoveryStrategy;
+import com.compiler.lexer.Token;
+import com.compiler.lexer.TokenType;
+import com.compiler.symboltable.SymbolTable;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class StagedPipelineTest {
+    private static final String PROGRAM = String.join("\n",
+        "@int maxcount = 100;",
+        "int count = 0;",
+        "dec result = 0.0;",
+        "str message = \"Hello\";",
+        "#* block",
+        "   comment *#",
+        "result = count * 3.5 / 2.0;",
+        "outln message;",
+        "");
+
+    static Stream<String> sources() {
+        return Stream.of(
+            "",
+            PROGRAM,
+            // Redeclaration, a stray character and an unterminated string
+            "int x = 1;\nint x = 2;\n$ y;\nstr s = \"open\n",
+            "char c = 'ab';\n# trailing comment",
+            PROGRAM.repeat(200));
+    }
+
+    private static String sequentialTokens(String source) {
+        LexicalAnalyzer lexer = new LexicalAnalyzer(source, new DiagnosticsCollector().handlerFor("seq"),
+                                                    EnumSet.allOf(RecoveryStrategy.class));
+        StringBuilder out = new StringBuilder();
+        Token token;
+        do {
+            token = lexer.next();
+            out.append(token).append('\n');
+        } while (token.getType() != TokenType.EOF);
+        return out.toString();
+    }
+
+    @ParameterizedTest
+    @MethodSource("sources")
+    void matchesFusedPipeline(String source) throws Exception {
+        DiagnosticsCollector fusedDiagnostics = new DiagnosticsCollector();
+        FusedPipeline fused = new FusedPipeline(fusedDiagnostics.handlerFor("test.aa"),
+                                                new SymbolTable(fusedDiagnostics.handlerFor("test.aa")));
+        fused.run(source, "test.aa");
+        List<String> expectedDiagnostics = fusedDiagnostics.getDiagnostics().stream()
+            .map(Diagnostic::toString).toList();
+        String expectedTokens = sequentialTokens(source);
+
+        // Tiny batches and queues force every buffer to fill and wrap
+        for (StagedPipeline pipeline : List.of(new StagedPipeline(), new StagedPipeline(1, 2),
+                                               new StagedPipeline(7, 3))) {
+            StringWriter out = new StringWriter();
+            StagedPipeline.Result result = pipeline.run(source, "test.aa", out);
+            assertEquals(expectedTokens, out.toString());
+            assertEquals(fused.getTokenCount(), result.getTokenCount());
+            assertEquals(fused.getDeclarationCount(), result.getDeclarationCount());
+            assertEquals(expectedDiagnostics,
+                         result.getDiagnostics().stream().map(Diagnostic::toString).toList());
+            assertEquals(fusedDiagnostics.hasErrors(), result.hasErrors());
+        }
+    }
+
+    @Test
+    void failingOutputEndsTheRunWithTheOriginalCause() {
+        IOException cause = new IOException("disk full");
+        Writer failing = new Writer() {
+            private int writes;
+
+            @Override
+            public void write(char[] buffer, int offset, int length) throws IOException {
+                if (++writes > 10) {
+                    throw cause;
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        // The upstream stages are blocked on full queues when the output stage fails
+        IOException thrown = assertTimeoutPreemptively(Duration.ofSeconds(30), () ->
+            assertThrows(IOException.class,
+                         () -> new StagedPipeline(1, 2).run(PROGRAM.repeat(500), "test.aa", failing)));
+        assertSame(cause, thrown);
+    }
+
+    @Test
+    void failingLexStageEndsTheRunWithTheOriginalCause() {
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () ->
+            assertThrows(NullPointerException.class,
+                         () -> new StagedPipeline().run(null, "test.aa", new StringWriter())));
+    }
+}
@@ -0,0 +1,109 @@
+package com.compiler.server;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CompileServerTest {
+    private CompileServer server;
+    private Socket socket;
+    private BufferedReader in;
+    private PrintWriter out;
+
+    @BeforeEach
+    void start() throws Exception {
+        server = CompileServer.onPort(0);
+        Thread serving = new Thread(() -> {
+            try {
+                server.serve();
+            } catch (Exception e) {
+                // Closed by the test
+            }
+        });
+        serving.setDaemon(true);
+        serving.start();
+        socket = new Socket("127.0.0.1", ((InetSocketAddress) server.getAddress()).getPort());
+        socket.setTcpNoDelay(true);    // requests are written line by line
+        in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        socket.close();
+        server.close();
+    }
+
+    private List<String> request(String... lines) throws Exception {
+        for (String line : lines) {
+            out.println(line);
+        }
+        List<String> reply = new ArrayList<>();
+        String line;
+        while (!(line = in.readLine()).equals("END")) {
+            reply.add(line);
+        }
+        return reply;
+    }
+
+    @Test
+    void multiLineTokenValuesStayOnOneLine() throws Exception {
+        List<String> reply = request("LEX test", "#* block", "comment *#", "str s = \"a\\b\";", "END");
+
+        assertEquals("TOKEN Token{type=MULTI_COMMENT_START, value=' block\\ncomment ', position=(1,1)}",
+                     reply.get(0));
+        assertTrue(reply.contains("TOKEN Token{type=STRING_LITERAL, value='a\\\\b', position=(3,9)}"), reply::toString);
+        assertTrue(reply.stream().allMatch(line -> line.startsWith("TOKEN ")), reply::toString);
+    }
+
+    @Test
+    void unknownCommandUsesErrorHandlerFormat() throws Exception {
+        assertEquals(List.of("ERROR at line 0, column 0: Unknown command: FOO"), request("FOO"));
+    }
+
+    @Test
+    void matchesInputsAgainstPattern() throws Exception {
+        assertEquals(List.of("ACCEPT", "REJECT", "ACCEPT"),
+                     request("MATCH [a-z][a-z0-9]*", "abc", "9x", "x9", "END"));
+        assertTrue(request("MATCH (a", "a", "END").get(0).startsWith("ERROR at line"));
+    }
+
+    @Test
+    void reusesCompiledPatterns() throws Exception {
+        assertEquals(List.of("ACCEPT"), request("MATCH (ab)+", "abab", "END"));
+        assertEquals(List.of("REJECT"), request("MATCH (ab)+", "aba", "END"));
+        assertEquals(1, server.cachedPatternCount());
+        for (int i = 0; i <= CompileServer.MAX_CACHED_PATTERNS; i++) {
+            request("MATCH p" + i, "END");
+        }
+        assertEquals(CompileServer.MAX_CACHED_PATTERNS, server.cachedPatternCount());
+    }
+
+    @Test
+    void oversizedRequestIsRejectedAndSkipped() throws Exception {
+        out.println("MATCH a+");
+        for (int i = 0; i <= CompileServer.MAX_REQUEST_LINES; i++) {
+            out.println("a");
+        }
+        assertEquals(List.of("ERROR at line 0, column 0: Request exceeds " + CompileServer.MAX_REQUEST_LINES
+                             + " lines or " + CompileServer.MAX_REQUEST_CHARS + " characters"),
+                     request("END"));
+
+        out.println("LEX big");
+        out.println("x".repeat(CompileServer.MAX_REQUEST_CHARS + 1));
+        assertTrue(request("END").get(0).contains("Request exceeds"));
+
+        out.println("PING");
+        assertEquals("PONG", in.readLine());
+    }
+}
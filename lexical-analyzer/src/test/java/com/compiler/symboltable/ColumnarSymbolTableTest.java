@@ -0,0 +1,112 @@
+package com.compiler.symboltable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.compiler.error.ErrorHandler;
+import com.compiler.lexer.TokenType;
+import org.junit.jupiter.api.Test;
+
+class ColumnarSymbolTableTest {
+    private final ErrorHandler errors = new ErrorHandler();
+
+    @Test
+    void looksUpByNameAndNameId() {
+        ColumnarSymbolTable table = new ColumnarSymbolTable(errors, 1);
+        int x = table.insert("x", TokenType.INT, true, false, 1, 1);
+        int y = table.insert("y", TokenType.STR, false, true, 2, 3);
+        assertEquals(x, table.lookup("x"));
+        assertEquals(y, table.lookup(table.internName("y")));
+        assertEquals(ColumnarSymbolTable.NO_SYMBOL, table.lookup("z"));
+
+        assertEquals("y", table.getName(y));
+        assertEquals(TokenType.STR, table.getType(y));
+        assertTrue(table.isGlobal(x));
+        assertTrue(table.isConstant(y));
+        assertEquals(2, table.getLine(y));
+        assertEquals(3, table.getColumn(y));
+        assertEquals("global", table.getScope(y));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    void innerDeclarationShadowsUntilScopeExit() {
+        ColumnarSymbolTable table = new ColumnarSymbolTable(errors);
+        int outer = table.insert("x", TokenType.INT, false, false, 1, 1);
+        table.enterScope("block");
+        int inner = table.insert("x", TokenType.STR, false, false, 2, 1);
+        assertNotEquals(outer, inner);
+        assertEquals(inner, table.lookup("x"));
+        assertEquals("block", table.getCurrentScope());
+
+        table.exitScope();
+        assertEquals(outer, table.lookup("x"));
+        assertEquals(1, table.size());
+        assertFalse(errors.hasErrors());
+    }
+
+    @Test
+    void closedIdsKeepTheirRowsAndAreNotReused() {
+        ColumnarSymbolTable table = new ColumnarSymbolTable(errors);
+        table.enterScope("first");
+        int a = table.insert("a", TokenType.INT, false, false, 2, 1);
+        table.enterScope("nested");
+        int b = table.insert("b", TokenType.BOOL, false, false, 3, 1);
+        table.exitScope();
+        table.exitScope();
+
+        table.enterScope("second");
+        int c = table.insert("c", TokenType.DEC, false, false, 5, 1);
+        assertNotEquals(a, c);
+        assertNotEquals(b, c);
+        assertEquals(ColumnarSymbolTable.NO_SYMBOL, table.lookup("a"));
+        assertEquals(ColumnarSymbolTable.NO_SYMBOL, table.lookup("b"));
+
+        assertFalse(table.isOpen(a));
+        assertFalse(table.isOpen(b));
+        assertTrue(table.isOpen(c));
+        assertEquals("a", table.getName(a));
+        assertEquals(TokenType.BOOL, table.getType(b));
+        assertEquals("first", table.getScope(a));
+        assertEquals("nested", table.getScope(b));
+        assertEquals(1, table.size());
+        assertEquals(1, table.getAllSymbols().size());
+        assertEquals("c", table.getAllSymbols().get(0).getName());
+    }
+
+    @Test
+    void redeclarationIsOnlyAnErrorInTheSameScope() {
+        ColumnarSymbolTable table = new ColumnarSymbolTable(errors);
+        table.insert("x", TokenType.INT, false, false, 1, 1);
+        assertEquals(ColumnarSymbolTable.NO_SYMBOL, table.insert("x", TokenType.INT, false, false, 2, 1));
+        assertEquals(1, errors.getErrorCount());
+
+        table.enterScope("block");
+        assertNotEquals(ColumnarSymbolTable.NO_SYMBOL, table.insert("x", TokenType.INT, false, false, 3, 1));
+        assertEquals(ColumnarSymbolTable.NO_SYMBOL, table.insert("g", TokenType.INT, true, false, 4, 1));
+        table.exitScope();
+
+        // The block's x is gone, so a second block may declare it again
+        table.enterScope("again");
+        assertNotEquals(ColumnarSymbolTable.NO_SYMBOL, table.insert("x", TokenType.INT, false, false, 5, 1));
+        assertEquals(2, errors.getErrorCount());
+    }
+
+    @Test
+    void growsPastInitialCapacityAcrossScopes() {
+        ColumnarSymbolTable table = new ColumnarSymbolTable(errors, 1);
+        for (int depth = 0; depth < 20; depth++) {
+            table.enterScope("s" + depth);
+            for (int i = 0; i < 10; i++) {
+                table.insert("v" + i, TokenType.INT, false, false, depth, i);
+            }
+        }
+        assertEquals(200, table.size());
+        assertEquals(19, table.getLine(table.lookup("v3")));
+        for (int depth = 19; depth > 0; depth--) {
+            table.exitScope();
+            assertEquals(depth - 1, table.getLine(table.lookup("v3")));
+        }
+        assertEquals(10, table.size());
+        assertFalse(errors.hasErrors());
+    }
+}
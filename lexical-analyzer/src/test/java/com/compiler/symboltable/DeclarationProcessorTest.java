@@ -0,0 +1,38 @@
+package com.compiler.symboltable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.compiler.error.ErrorHandler;
+import com.compiler.lexer.LexicalAnalyzer;
+import com.compiler.lexer.RecoveryStrategy;
+import com.compiler.lexer.Token;
+import com.compiler.lexer.TokenType;
+import java.util.EnumSet;
+import org.junit.jupiter.api.Test;
+
+class DeclarationProcessorTest {
+    private static SymbolTable declare(String source) {
+        ErrorHandler errorHandler = new ErrorHandler();
+        SymbolTable symbolTable = new SymbolTable(errorHandler);
+        DeclarationProcessor declarations = new DeclarationProcessor(symbolTable);
+        LexicalAnalyzer lexer = new LexicalAnalyzer(source, errorHandler, EnumSet.allOf(RecoveryStrategy.class));
+        for (Token token : lexer.tokenize()) {
+            declarations.accept(token);
+        }
+        return symbolTable;
+    }
+
+    @Test
+    void declaresTypedIdentifiers() {
+        SymbolTable symbolTable = declare("int x; @dec y;");
+        assertEquals(TokenType.INT, symbolTable.lookup("x").getType());
+        assertEquals(TokenType.DEC, symbolTable.lookup("y").getType());
+    }
+
+    @Test
+    void invalidTokenAbandonsPendingDeclaration() {
+        SymbolTable symbolTable = declare("int Bad; x = 5;");
+        assertNull(symbolTable.lookup("x"));
+        assertTrue(symbolTable.getAllSymbols().isEmpty());
+    }
+}
@@ -0,0 +1,134 @@
+package com.compiler.symboltable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class PersistentHashMapTest {
+    // Equal hash codes force collision nodes; distinct names keep the keys unequal
+    private record Key(String name, int hash) {
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static <K, V> Map<K, V> contents(PersistentHashMap<K, V> map) {
+        Map<K, V> result = new HashMap<>();
+        map.forEach(result::put);
+        return result;
+    }
+
+    @Test
+    void keysWithEqualHashCodesAreKeptApart() {
+        Key a = new Key("a", 42);
+        Key b = new Key("b", 42);
+        Key c = new Key("c", 42);
+        PersistentHashMap<Key, Integer> map = PersistentHashMap.<Key, Integer>empty()
+            .put(a, 1).put(b, 2).put(c, 3);
+        assertEquals(3, map.size());
+        assertEquals(1, map.get(a));
+        assertEquals(2, map.get(b));
+        assertEquals(3, map.get(c));
+        assertNull(map.get(new Key("d", 42)));
+
+        PersistentHashMap<Key, Integer> replaced = map.put(b, 20);
+        assertEquals(3, replaced.size());
+        assertEquals(20, replaced.get(b));
+
+        PersistentHashMap<Key, Integer> removed = map.remove(b).remove(new Key("d", 42));
+        assertEquals(2, removed.size());
+        assertNull(removed.get(b));
+        assertEquals(1, removed.get(a));
+        assertEquals(3, removed.get(c));
+        assertTrue(removed.remove(a).remove(c).isEmpty());
+    }
+
+    @Test
+    void collisionBesideOtherKeysCollapsesOnRemove() {
+        Key a = new Key("a", 7);
+        Key b = new Key("b", 7);
+        // Same low five bits as a and b, so all three share a root slot
+        Key near = new Key("near", 7 | (1 << 5));
+        PersistentHashMap<Key, String> map = PersistentHashMap.<Key, String>empty()
+            .put(a, "a").put(b, "b").put(near, "near");
+        PersistentHashMap<Key, String> withoutA = map.remove(a);
+        assertEquals(Map.of(b, "b", near, "near"), contents(withoutA));
+        PersistentHashMap<Key, String> onlyNear = withoutA.remove(b);
+        assertEquals(Map.of(near, "near"), contents(onlyNear));
+        assertEquals("near", onlyNear.get(near));
+        assertEquals(Map.of(a, "a", b, "b", near, "near"), contents(map));
+    }
+
+    @Test
+    void oldSnapshotsAreUnchangedByPutAndRemove() {
+        PersistentHashMap<String, Integer> base = PersistentHashMap.empty();
+        for (int i = 0; i < 100; i++) {
+            base = base.put("k" + i, i);
+        }
+        Map<String, Integer> expected = contents(base);
+
+        PersistentHashMap<String, Integer> changed = base.put("k5", -5).put("new", 1000).remove("k7");
+        assertEquals(expected, contents(base));
+        assertEquals(100, base.size());
+        assertEquals(5, base.get("k5"));
+        assertEquals(7, base.get("k7"));
+        assertNull(base.get("new"));
+
+        assertEquals(100, changed.size());
+        assertEquals(-5, changed.get("k5"));
+        assertNull(changed.get("k7"));
+        assertEquals(1000, changed.get("new"));
+    }
+
+    @Test
+    void unchangedOperationsReturnTheSameMap() {
+        PersistentHashMap<String, Integer> map = PersistentHashMap.<String, Integer>empty().put("x", 1);
+        assertSame(map, map.remove("y"));
+        assertSame(PersistentHashMap.empty(), PersistentHashMap.<String, Integer>empty().remove("x"));
+        assertSame(PersistentHashMap.empty(), map.remove("x"));
+    }
+
+    @Test
+    void growsAndShrinksThroughEveryTrieLevel() {
+        Random random = new Random(0x5EED);
+        Map<Key, Integer> reference = new HashMap<>();
+        PersistentHashMap<Key, Integer> map = PersistentHashMap.empty();
+        assertTrue(map.isEmpty());
+        for (int i = 0; i < 5000; i++) {
+            // Small hash ranges share long prefixes and some collide outright
+            int hash = i % 3 == 0 ? random.nextInt(64) : random.nextInt();
+            Key key = new Key("k" + i, hash);
+            map = map.put(key, i);
+            reference.put(key, i);
+            if (i == 0) {
+                assertEquals(1, map.size());
+                assertEquals(0, map.get(key));
+            }
+        }
+        assertEquals(reference.size(), map.size());
+        assertEquals(reference, contents(map));
+
+        Key[] keys = reference.keySet().toArray(new Key[0]);
+        for (int i = keys.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Key swap = keys[i];
+            keys[i] = keys[j];
+            keys[j] = swap;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            map = map.remove(keys[i]);
+            reference.remove(keys[i]);
+            assertEquals(reference.size(), map.size());
+            assertNull(map.get(keys[i]));
+            if (i % 500 == 0) {
+                assertEquals(reference, contents(map));
+            }
+        }
+        assertTrue(map.isEmpty());
+        assertEquals(Map.of(), contents(map));
+    }
+}
@@ -0,0 +1,80 @@
+package com.compiler.symboltable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.compiler.error.ErrorHandler;
+import com.compiler.lexer.TokenType;
+import org.junit.jupiter.api.Test;
+
+class PersistentSymbolTableTest {
+    private final ErrorHandler errors = new ErrorHandler();
+
+    @Test
+    void exitScopeKeepsOuterUpdatesAndDropsInnerDeclarations() {
+        PersistentSymbolTable global = PersistentSymbolTable.create(errors)
+            .insert("x", TokenType.INT, false, false, 1, 1)
+            .updateValue("x", 1, 1, 5);
+        PersistentSymbolTable inner = global.enterScope("block")
+            .insert("y", TokenType.INT, false, false, 2, 1)
+            .updateValue("x", 2, 3, 1)
+            .updateValue("y", 3, 4, 1);
+        assertEquals(2, inner.lookup("x").getValue());
+        assertEquals(3, inner.lookup("y").getValue());
+
+        PersistentSymbolTable after = inner.exitScope();
+        assertEquals(2, after.lookup("x").getValue());
+        assertNull(after.lookup("y"));
+        assertEquals(1, after.size());
+        assertEquals(1, after.getCurrentScopeLevel());
+        assertEquals("global", after.getCurrentScope());
+
+        // The snapshot taken before the block still sees the old value
+        assertEquals(1, global.lookup("x").getValue());
+        assertFalse(errors.hasErrors());
+    }
+
+    @Test
+    void updatesPropagateThroughNestedScopes() {
+        PersistentSymbolTable global = PersistentSymbolTable.create(errors)
+            .insert("x", TokenType.INT, false, false, 1, 1);
+        PersistentSymbolTable middle = global.enterScope("outer")
+            .insert("m", TokenType.STR, false, false, 2, 1);
+        PersistentSymbolTable innermost = middle.enterScope("inner")
+            .updateValue("x", 10, 3, 1)
+            .updateValue("m", "set", 3, 5);
+
+        PersistentSymbolTable backInMiddle = innermost.exitScope();
+        assertEquals(10, backInMiddle.lookup("x").getValue());
+        assertEquals("set", backInMiddle.lookup("m").getValue());
+
+        PersistentSymbolTable backInGlobal = backInMiddle.exitScope();
+        assertEquals(10, backInGlobal.lookup("x").getValue());
+        assertNull(backInGlobal.lookup("m"));
+        assertFalse(errors.hasErrors());
+    }
+
+    @Test
+    void shadowingDeclarationDoesNotLeakOut() {
+        PersistentSymbolTable global = PersistentSymbolTable.create(errors)
+            .insert("x", TokenType.INT, false, false, 1, 1)
+            .updateValue("x", 1, 1, 5);
+        PersistentSymbolTable inner = global.enterScope("block")
+            .insert("x", TokenType.STR, false, false, 2, 1)
+            .updateValue("x", "inner", 2, 9);
+        assertEquals(TokenType.STR, inner.lookup("x").getType());
+
+        PersistentSymbolTable after = inner.exitScope();
+        assertEquals(TokenType.INT, after.lookup("x").getType());
+        assertEquals(1, after.lookup("x").getValue());
+        assertFalse(errors.hasErrors());
+    }
+
+    @Test
+    void failedOperationsReportAndReturnTheSameTable() {
+        PersistentSymbolTable table = PersistentSymbolTable.create(errors)
+            .insert("x", TokenType.INT, false, false, 1, 1);
+        assertSame(table, table.insert("x", TokenType.INT, false, false, 2, 1));
+        assertSame(table, table.updateValue("missing", 1, 3, 1));
+        assertEquals(2, errors.getErrorCount());
+    }
+}
@@ -0,0 +1,32 @@
+package com.compiler.symboltable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.compiler.lexer.TokenType;
+import org.junit.jupiter.api.Test;
+
+class SymbolTest {
+    private static Symbol symbol(TokenType type) {
+        return new Symbol("x", type, false, false, "global", 1, 1);
+    }
+
+    @Test
+    void typedSlotsRoundTrip() {
+        Symbol dec = symbol(TokenType.DEC);
+        dec.setDec(2.5);
+        assertEquals(2.5, dec.getDec());
+        assertEquals(2.5, dec.getValue());
+    }
+
+    @Test
+    void readMismatchNamesRequestedAndDeclaredTypes() {
+        Symbol dec = symbol(TokenType.DEC);
+        dec.setDec(2.5);
+        IllegalStateException e = assertThrows(IllegalStateException.class, dec::getInt);
+        assertEquals("Type mismatch: Cannot read INT from symbol 'x' of type DEC", e.getMessage());
+
+        e = assertThrows(IllegalStateException.class, symbol(TokenType.STR)::getStr);
+        assertEquals("Type mismatch: Cannot read STR from symbol 'x' of type STR (no value assigned)",
+                     e.getMessage());
+    }
+}
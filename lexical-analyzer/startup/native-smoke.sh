@@ -0,0 +1,60 @@
+#!/bin/sh
+# Smoke test for the native executable: token output must match the JVM
+# build exactly, and start-up latency is reported for both.
+#
+#   mvn -Pnative package && startup/native-smoke.sh [file.aa ...]
+
+DIR=$(cd "$(dirname "$0")/.." && pwd)
+JAR="$DIR/target/lexical-analyzer-1.0-SNAPSHOT.jar"
+NATIVE="$DIR/target/aa-lex"
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+RUNS=10
+
+if [ $# -eq 0 ]; then
+    set -- "$DIR/startup/training.aa"
+fi
+
+if [ ! -x "$NATIVE" ]; then
+    echo "Native executable not found: $NATIVE (run mvn -Pnative package)" >&2
+    exit 2
+fi
+
+TMP=$(mktemp -d)
+trap 'rm -rf "$TMP"' EXIT
+
+status=0
+for input in "$@"; do
+    "$JAVA" -cp "$JAR" com.compiler.LexCli "$input" >"$TMP/jvm.out" 2>"$TMP/jvm.err"
+    jvm_exit=$?
+    "$NATIVE" "$input" >"$TMP/native.out" 2>"$TMP/native.err"
+    native_exit=$?
+
+    if cmp -s "$TMP/jvm.out" "$TMP/native.out" \
+        && cmp -s "$TMP/jvm.err" "$TMP/native.err" \
+        && [ $jvm_exit -eq $native_exit ]; then
+        echo "OK       $input"
+    else
+        echo "MISMATCH $input (exit jvm=$jvm_exit native=$native_exit)"
+        diff "$TMP/jvm.out" "$TMP/native.out" | head -20
+        diff "$TMP/jvm.err" "$TMP/native.err" | head -20
+        status=1
+    fi
+done
+
+# Average wall time over RUNS launches of the given command
+latency() {
+    total=0
+    i=0
+    while [ $i -lt $RUNS ]; do
+        start=$(date +%s%N)
+        "$@" >/dev/null 2>&1
+        end=$(date +%s%N)
+        total=$((total + (end - start) / 1000000))
+        i=$((i + 1))
+    done
+    echo $((total / RUNS))
+}
+
+echo "JVM    start-up + lex: $(latency "$JAVA" -cp "$JAR" com.compiler.LexCli "$1") ms"
+echo "Native start-up + lex: $(latency "$NATIVE" "$1") ms"
+exit $status
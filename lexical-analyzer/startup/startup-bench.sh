@@ -0,0 +1,36 @@
+#!/bin/sh
+# Compares time-to-first-token with and without the AppCDS archive.
+#
+#   mvn -Pappcds package && startup/startup-bench.sh [runs] [file.aa]
+
+DIR=$(cd "$(dirname "$0")/.." && pwd)
+RUNS=${1:-20}
+INPUT=${2:-$DIR/startup/training.aa}
+JAR="$DIR/target/lexical-analyzer-1.0-SNAPSHOT.jar"
+JSA="$DIR/target/aa.jsa"
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+
+# Prints the average time-to-first-token and wall time for the given JVM options
+measure() {
+    label=$1
+    shift
+    total_ttft=0
+    total_wall=0
+    i=0
+    while [ $i -lt "$RUNS" ]; do
+        start=$(date +%s%N)
+        ttft=$("$JAVA" "$@" -Daa.launch.millis=$((start / 1000000)) -cp "$JAR" com.compiler.LexCli "$INPUT" 2>&1 >/dev/null \
+            | sed -n 's/^time-to-first-token-ms: //p')
+        end=$(date +%s%N)
+        total_ttft=$((total_ttft + ${ttft:-0}))
+        total_wall=$((total_wall + (end - start) / 1000000))
+        i=$((i + 1))
+    done
+    printf '%-24s time-to-first-token %5d ms   wall %5d ms\n' \
+        "$label" $((total_ttft / RUNS)) $((total_wall / RUNS))
+}
+
+measure "default" -Xshare:auto
+measure "appcds" -XX:SharedArchiveFile="$JSA" -Xshare:auto
+measure "appcds+c1+serialgc" -XX:SharedArchiveFile="$JSA" -Xshare:auto \
+    -XX:TieredStopAtLevel=1 -XX:+UseSerialGC